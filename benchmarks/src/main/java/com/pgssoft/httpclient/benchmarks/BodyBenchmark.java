@@ -0,0 +1,65 @@
+package com.pgssoft.httpclient.benchmarks;
+
+import com.pgssoft.httpclient.HttpClientMock;
+import com.pgssoft.httpclient.JournalPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Measures matching request body and delivering response body to body handlers, for bodies from 1 KB to 10 MB.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyBenchmark {
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    int bodySize;
+
+    private HttpClientMock httpClientMock;
+    private HttpRequest requestWithBody;
+    private HttpRequest requestForBody;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final String body = "x".repeat(bodySize);
+        httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.countersOnly());
+        httpClientMock.onPost("/upload").withBody(startsWith("xxx")).doReturnStatus(201);
+        httpClientMock.onGet("/download").doReturn(body);
+        requestWithBody = HttpRequest.newBuilder(URI.create("http://localhost/upload"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        requestForBody = HttpRequest.newBuilder(URI.create("http://localhost/download")).GET().build();
+    }
+
+    @Benchmark
+    public HttpResponse<Void> matchRequestBody() throws IOException {
+        return httpClientMock.send(requestWithBody, HttpResponse.BodyHandlers.discarding());
+    }
+
+    @Benchmark
+    public HttpResponse<byte[]> responseBodyAsBytes() throws IOException {
+        return httpClientMock.send(requestForBody, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Benchmark
+    public HttpResponse<String> responseBodyAsString() throws IOException {
+        return httpClientMock.send(requestForBody, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Benchmark
+    public HttpResponse<Void> responseBodyDiscarded() throws IOException {
+        return httpClientMock.send(requestForBody, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,95 @@
+package com.pgssoft.httpclient.benchmarks;
+
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.UrlParamsMatcher;
+import com.pgssoft.httpclient.internal.condition.BodyCondition;
+import org.hamcrest.Matchers;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Measures query parameter and body conditions on their own, without rule lookup and response delivery of send path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionBenchmark {
+
+    @State(Scope.Thread)
+    public static class QueryState {
+
+        @Param({"1", "8", "64"})
+        int parameterCount;
+
+        @Param({"false", "true"})
+        boolean percentEncoded;
+
+        UrlParamsMatcher matcher;
+        String query;
+
+        @Setup
+        public void setUp() {
+            matcher = new UrlParamsMatcher();
+            final StringBuilder query = new StringBuilder();
+            for (int i = 0; i < parameterCount; i++) {
+                final String value = percentEncoded ? "value " + i + "/\u017c" : "value" + i;
+                matcher.addParam("param" + i, Matchers.containsInAnyOrder(value));
+                query.append(i == 0 ? "" : "&").append("param").append(i).append('=')
+                        .append(percentEncoded ? "value%20" + i + "%2F%C5%BC" : value);
+            }
+            this.query = query.toString();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BodyState {
+
+        @Param({"1024", "1048576"})
+        int bodySize;
+
+        BodyCondition condition;
+        HttpRequest request;
+        RequestContext sharedContext;
+
+        @Setup
+        public void setUp() {
+            condition = new BodyCondition(startsWith("xxx"));
+            request = HttpRequest.newBuilder(URI.create("http://localhost/upload"))
+                    .POST(HttpRequest.BodyPublishers.ofString("x".repeat(bodySize)))
+                    .build();
+            sharedContext = new RequestContext(request);
+            sharedContext.bodyAsString();
+        }
+    }
+
+    /**
+     * Parses query string and matches it against expected parameters.
+     */
+    @Benchmark
+    public boolean matchQuery(QueryState state) {
+        return state.matcher.matches(state.query);
+    }
+
+    /**
+     * Captures and decodes body of request and matches it, as done for the first body condition of request.
+     */
+    @Benchmark
+    public boolean matchBody(BodyState state) {
+        return state.condition.matches(new RequestContext(state.request));
+    }
+
+    /**
+     * Matches body already decoded by earlier condition of the same request.
+     */
+    @Benchmark
+    public boolean matchDecodedBody(BodyState state) {
+        return state.condition.matches(state.sharedContext);
+    }
+}
@@ -0,0 +1,43 @@
+package com.pgssoft.httpclient.benchmarks;
+
+import com.pgssoft.httpclient.HttpClientMock;
+import com.pgssoft.httpclient.JournalPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of single mock shared by many threads, which contend on rule table and request journal.
+ * Run with different thread counts, for example {@code -t 1}, {@code -t 4} and {@code -t max}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ContentionBenchmark {
+
+    private HttpClientMock httpClientMock;
+    private HttpRequest request;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.countersOnly());
+        for (int i = 0; i < 100; i++) {
+            httpClientMock.onGet("/resource/" + i).doReturn("rule " + i);
+        }
+        request = HttpRequest.newBuilder(URI.create("http://localhost/resource/50")).GET().build();
+    }
+
+    @Benchmark
+    public HttpResponse<Void> sharedMock() throws IOException {
+        return httpClientMock.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,54 @@
+package com.pgssoft.httpclient.benchmarks;
+
+import com.pgssoft.httpclient.HttpClientMock;
+import com.pgssoft.httpclient.HttpClientMockBuilder;
+import com.pgssoft.httpclient.JournalPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing query string and matching it against expected parameters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryMatchingBenchmark {
+
+    @Param({"1", "8", "64"})
+    int parameterCount;
+
+    @Param({"false", "true"})
+    boolean percentEncoded;
+
+    private HttpClientMock httpClientMock;
+    private HttpRequest request;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.countersOnly());
+        final HttpClientMockBuilder rule = httpClientMock.onGet().withPath("/search");
+        final StringBuilder query = new StringBuilder();
+        for (int i = 0; i < parameterCount; i++) {
+            final String value = percentEncoded ? "value " + i + "/\u017c" : "value" + i;
+            rule.withParameter("param" + i, value);
+            query.append(i == 0 ? "?" : "&").append("param").append(i).append('=')
+                    .append(percentEncoded ? "value%20" + i + "%2F%C5%BC" : value);
+        }
+        rule.doReturn("found");
+        request = HttpRequest.newBuilder(URI.create("http://localhost/search" + query)).GET().build();
+    }
+
+    @Benchmark
+    public HttpResponse<Void> matchQuery() throws IOException {
+        return httpClientMock.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,61 @@
+package com.pgssoft.httpclient.benchmarks;
+
+import com.pgssoft.httpclient.HttpClientMock;
+import com.pgssoft.httpclient.JournalPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Measures finding matching rule among growing number of rules. Literal rules are served by path index, matcher rules
+ * have to be checked one by one. Request hits the first defined rule, which is the last one checked.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleMatchingBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int ruleCount;
+
+    @Param({"literal", "matcher"})
+    String ruleKind;
+
+    private HttpClientMock httpClientMock;
+    private HttpRequest firstRuleRequest;
+    private HttpRequest lastRuleRequest;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.countersOnly());
+        for (int i = 0; i < ruleCount; i++) {
+            if (ruleKind.equals("literal")) {
+                httpClientMock.onGet().withPath("/resource/" + i).doReturn("rule " + i);
+            } else {
+                httpClientMock.onGet().withPath(equalTo("/resource/" + i)).doReturn("rule " + i);
+            }
+        }
+        firstRuleRequest = HttpRequest.newBuilder(URI.create("http://localhost/resource/0")).GET().build();
+        lastRuleRequest = HttpRequest.newBuilder(URI.create("http://localhost/resource/" + (ruleCount - 1))).GET().build();
+    }
+
+    @Benchmark
+    public HttpResponse<Void> firstDefinedRule() throws IOException {
+        return httpClientMock.send(firstRuleRequest, HttpResponse.BodyHandlers.discarding());
+    }
+
+    @Benchmark
+    public HttpResponse<Void> lastDefinedRule() throws IOException {
+        return httpClientMock.send(lastRuleRequest, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,55 @@
+package com.pgssoft.httpclient.benchmarks;
+
+import com.pgssoft.httpclient.HttpClientMock;
+import com.pgssoft.httpclient.JournalPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares synchronous send with asynchronous send completed on caller thread and on executor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendBenchmark {
+
+    private HttpClientMock syncMock;
+    private HttpClientMock asyncMock;
+    private HttpRequest request;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        syncMock = new HttpClientMock("http://localhost");
+        syncMock.journalPolicy(JournalPolicy.countersOnly());
+        syncMock.onGet("/login").doReturn("ok");
+        asyncMock = new HttpClientMock("http://localhost");
+        asyncMock.journalPolicy(JournalPolicy.countersOnly());
+        asyncMock.onGet("/login").doReturn("ok");
+        asyncMock.asyncOn();
+        request = HttpRequest.newBuilder(URI.create("http://localhost/login")).GET().build();
+    }
+
+    @Benchmark
+    public HttpResponse<String> send() throws IOException {
+        return syncMock.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Benchmark
+    public HttpResponse<String> sendAsyncOnCallerThread() throws ExecutionException, InterruptedException {
+        return syncMock.sendAsync(request, HttpResponse.BodyHandlers.ofString()).get();
+    }
+
+    @Benchmark
+    public HttpResponse<String> sendAsyncOnExecutor() throws ExecutionException, InterruptedException {
+        return asyncMock.sendAsync(request, HttpResponse.BodyHandlers.ofString()).get();
+    }
+}
@@ -0,0 +1,172 @@
+package com.pgssoft.httpclient;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Matchers of raw request body, to be used with {@code withBodyBytes}. They work directly on captured body bytes and
+ * never decode body to string, so they are cheap even for large uploads.
+ */
+public final class BodyMatchers {
+
+    private BodyMatchers() {
+    }
+
+    /**
+     * Body must start with provided bytes.
+     *
+     * @param prefix expected prefix
+     * @return body matcher
+     */
+    public static Matcher<ByteBuffer> startsWithBytes(byte[] prefix) {
+        Objects.requireNonNull(prefix, "prefix must be not null");
+        final byte[] expected = prefix.clone();
+        return new BodyMatcher("body starting with " + Arrays.toString(expected)) {
+            @Override
+            boolean matchesBody(ByteBuffer body) {
+                return body.remaining() >= expected.length && indexOf(body, expected, body.position(), body.position() + 1) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Body must start with provided text encoded as UTF-8.
+     *
+     * @param prefix expected prefix
+     * @return body matcher
+     */
+    public static Matcher<ByteBuffer> startsWithBytes(String prefix) {
+        Objects.requireNonNull(prefix, "prefix must be not null");
+        return startsWithBytes(prefix.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Body must contain provided bytes.
+     *
+     * @param part expected part of body
+     * @return body matcher
+     */
+    public static Matcher<ByteBuffer> containsBytes(byte[] part) {
+        Objects.requireNonNull(part, "part must be not null");
+        final byte[] expected = part.clone();
+        return new BodyMatcher("body containing " + Arrays.toString(expected)) {
+            @Override
+            boolean matchesBody(ByteBuffer body) {
+                return indexOf(body, expected, body.position(), body.limit()) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Body must contain provided text encoded as UTF-8.
+     *
+     * @param part expected part of body
+     * @return body matcher
+     */
+    public static Matcher<ByteBuffer> containsBytes(String part) {
+        Objects.requireNonNull(part, "part must be not null");
+        return containsBytes(part.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Body must be equal to provided bytes.
+     *
+     * @param content expected body
+     * @return body matcher
+     */
+    public static Matcher<ByteBuffer> equalToBytes(byte[] content) {
+        Objects.requireNonNull(content, "content must be not null");
+        final ByteBuffer expected = ByteBuffer.wrap(content.clone());
+        return new BodyMatcher("body equal to " + content.length + " expected bytes") {
+            @Override
+            boolean matchesBody(ByteBuffer body) {
+                return body.equals(expected);
+            }
+        };
+    }
+
+    /**
+     * Digest of body computed with provided algorithm must be equal to expected one. Useful for large bodies, when
+     * test knows only checksum of uploaded content.
+     *
+     * @param algorithm digest algorithm, for example "SHA-256"
+     * @param digest    expected digest as hexadecimal string
+     * @return body matcher
+     */
+    public static Matcher<ByteBuffer> hasDigest(String algorithm, String digest) {
+        Objects.requireNonNull(algorithm, "algorithm must be not null");
+        Objects.requireNonNull(digest, "digest must be not null");
+        try {
+            MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unknown digest algorithm " + algorithm, e);
+        }
+        final String expected = digest.toLowerCase();
+        return new BodyMatcher("body with " + algorithm + " digest " + expected) {
+            @Override
+            boolean matchesBody(ByteBuffer body) {
+                try {
+                    final MessageDigest messageDigest = MessageDigest.getInstance(algorithm);
+                    messageDigest.update(body);
+                    return toHex(messageDigest.digest()).equals(expected);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Finds first occurrence of pattern starting at position from range [from, to).
+     */
+    private static int indexOf(ByteBuffer body, byte[] pattern, int from, int to) {
+        final int last = Math.min(to, body.limit() - pattern.length + 1);
+        outer:
+        for (int i = from; i < last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (body.get(i + j) != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private abstract static class BodyMatcher extends TypeSafeMatcher<ByteBuffer> {
+
+        private final String description;
+
+        BodyMatcher(String description) {
+            this.description = description;
+        }
+
+        @Override
+        protected boolean matchesSafely(ByteBuffer body) {
+            return matchesBody(body.duplicate());
+        }
+
+        abstract boolean matchesBody(ByteBuffer body);
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText(this.description);
+        }
+    }
+}
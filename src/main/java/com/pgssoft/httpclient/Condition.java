@@ -5,6 +5,17 @@ import java.net.http.HttpRequest;
 public interface Condition {
     boolean matches(HttpRequest request);
 
+    /**
+     * Checks condition against request prepared for matching. Context is shared by all rules evaluated for the same
+     * request, so conditions which override this method can reuse already parsed parts of request.
+     *
+     * @param context request prepared for matching
+     * @return true if request matches condition
+     */
+    default boolean matches(MatchContext context) {
+        return matches(context.request());
+    }
+
     default String getDebugMessage() {
         return "Anonymous condition";
     }
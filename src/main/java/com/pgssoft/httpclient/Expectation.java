@@ -0,0 +1,66 @@
+package com.pgssoft.httpclient;
+
+import com.pgssoft.httpclient.internal.RandomSource;
+import org.hamcrest.Matcher;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Verification registered before requests are sent. Matching requests are counted when they are handled, so
+ * verification takes constant time regardless of number of sent requests, and works with any journal policy.
+ */
+public final class Expectation {
+
+    private final LongAdder counter;
+    private final RandomSource random;
+
+    Expectation(LongAdder counter, RandomSource random) {
+        this.counter = counter;
+        this.random = random;
+    }
+
+    /**
+     * @return number of requests matching expectation handled since it was registered
+     */
+    public long count() {
+        return counter.sum();
+    }
+
+    /**
+     * Verifies that no request matching expectation was handled.
+     */
+    public void notCalled() {
+        called(0);
+    }
+
+    /**
+     * Verifies that exactly one request matching expectation was handled.
+     */
+    public void called() {
+        called(1);
+    }
+
+    /**
+     * Verifies number of requests matching expectation.
+     *
+     * @param numberOfCalls expected number of calls
+     */
+    public void called(int numberOfCalls) {
+        called(equalTo(numberOfCalls));
+    }
+
+    /**
+     * Verifies number of requests matching expectation.
+     *
+     * @param numberOfCalls expected number of calls
+     */
+    public void called(Matcher<Integer> numberOfCalls) {
+        int matchingCalls = (int) Math.min(Integer.MAX_VALUE, counter.sum());
+        if (!numberOfCalls.matches(matchingCalls)) {
+            throw new IllegalStateException(String.format("Expected %s calls, but found %s.", numberOfCalls, matchingCalls)
+                    + random.failureNote());
+        }
+    }
+}
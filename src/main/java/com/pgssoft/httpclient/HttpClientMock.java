@@ -1,13 +1,32 @@
 package com.pgssoft.httpclient;
 
+import com.pgssoft.httpclient.internal.BodySubscription;
+import com.pgssoft.httpclient.internal.DefaultExecutor;
+import com.pgssoft.httpclient.internal.ExpectationRegistry;
+import com.pgssoft.httpclient.internal.capture.CaptureReader;
+import com.pgssoft.httpclient.internal.capture.RecordedExchange;
+import com.pgssoft.httpclient.internal.capture.ReplayIndex;
 import com.pgssoft.httpclient.internal.debug.Debugger;
+import com.pgssoft.httpclient.internal.event.BodyDeliveredEvent;
+import com.pgssoft.httpclient.internal.event.LookupEvents;
+import com.pgssoft.httpclient.internal.event.MockEvents;
 import com.pgssoft.httpclient.internal.HttpResponseProxy;
+import com.pgssoft.httpclient.internal.MockStats;
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.RequestJournal;
 import com.pgssoft.httpclient.internal.rule.Rule;
 import com.pgssoft.httpclient.internal.rule.RuleBuilder;
+import com.pgssoft.httpclient.internal.rule.RuleTable;
+import com.pgssoft.httpclient.internal.rulefile.RuleFileWatcher;
+import com.pgssoft.httpclient.internal.rulefile.RuleFiles;
+import com.pgssoft.httpclient.internal.snapshot.RuleSnapshot;
+import com.pgssoft.httpclient.internal.snapshot.RuleSnapshotWriter;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.Authenticator;
 import java.net.CookieHandler;
 import java.net.ProxySelector;
@@ -16,28 +35,46 @@ import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.pgssoft.httpclient.internal.HttpMethods.*;
 
 public final class HttpClientMock extends HttpClient {
 
+    /**
+     * System property with seed used to choose probabilistic responses, random when not set.
+     */
+    public static final String SEED_PROPERTY = "httpclientmock.seed";
+
     private final Debugger debugger;
-    private final List<Rule> rules = new ArrayList<>();
-    private final List<RuleBuilder> rulesUnderConstruction = new ArrayList<>();
+    private final List<RuleBuilder> ruleBuilders = new ArrayList<>();
     private final String host;
-    private final List<HttpRequest> requests = new ArrayList<>();
+    private volatile JournalPolicy journalPolicy = JournalPolicy.unbounded();
+    private volatile RequestJournal requests = journalPolicy.createJournal();
+    private volatile ExpectationRegistry expectations = new ExpectationRegistry();
+    private volatile RuleTable ruleTable = RuleTable.EMPTY;
 
     private boolean debuggingOn;
+    private volatile boolean metricsOn;
+    private volatile MockStats stats = new MockStats();
+    private volatile RandomSource random = new RandomSource(Long.getLong(SEED_PROPERTY, System.nanoTime()));
+    private volatile Executor executor;
 
     /**
      * Creates mock of HttpClient
@@ -56,6 +93,17 @@ public final class HttpClientMock extends HttpClient {
         this.debugger = new Debugger();
     }
 
+    /**
+     * Creates mock of HttpClient with default host. All defined conditions without host will use default host
+     *
+     * @param host     default host for later conditions
+     * @param executor executor used by sendAsync to complete requests, like executor set on HttpClient.Builder
+     */
+    public HttpClientMock(String host, Executor executor) {
+        this(host);
+        this.executor = Objects.requireNonNull(executor, "executor must be not null");
+    }
+
     /**
      * Creates mock of HttpClient with default host. All defined conditions without host will use default host
      *
@@ -68,11 +116,26 @@ public final class HttpClientMock extends HttpClient {
     }
 
     /**
-     * Resets mock to initial state where there are no rules and no previous requests.
+     * Resets mock to initial state where there are no rules, no registered expectations and no previous requests.
      */
     public void reset() {
-        this.rulesUnderConstruction.clear();
-        this.requests.clear();
+        synchronized (ruleBuilders) {
+            this.ruleBuilders.clear();
+            this.ruleTable = ruleTable.cleared();
+        }
+        this.requests = journalPolicy.createJournal();
+        this.expectations = new ExpectationRegistry();
+        this.stats = new MockStats();
+    }
+
+    /**
+     * Sets policy deciding which requests are retained for verification. Previous requests are discarded.
+     *
+     * @param journalPolicy journal policy
+     */
+    public void journalPolicy(JournalPolicy journalPolicy) {
+        this.journalPolicy = Objects.requireNonNull(journalPolicy, "journal policy must be not null");
+        this.requests = journalPolicy.createJournal();
     }
 
     /**
@@ -81,7 +144,7 @@ public final class HttpClientMock extends HttpClient {
      * @return request number verification builder
      */
     public HttpClientVerify verify() {
-        return new HttpClientVerify(host, requests);
+        return new HttpClientVerify(host, requests, expectations, random);
     }
 
     /**
@@ -227,18 +290,118 @@ public final class HttpClientMock extends HttpClient {
         return newRule(PATCH, url);
     }
 
+    /**
+     * Adds rules returning responses recorded in capture file by {@link RecordingHttpClient}. Request must have the
+     * same method, URI and body as recorded one. Recorded exchanges are indexed, so finding recorded response takes
+     * constant time regardless of size of capture. When the same request was recorded many times, responses are
+     * returned in order of recording, and the last one is repeated.
+     *
+     * @param captureFile capture file
+     * @throws IOException when capture file can't be read
+     */
+    public void replay(Path captureFile) throws IOException {
+        final Map<String, List<RecordedExchange>> exchangesByMethod = CaptureReader.read(captureFile).stream()
+                .collect(Collectors.groupingBy(RecordedExchange::method, LinkedHashMap::new, Collectors.toList()));
+        exchangesByMethod.forEach((method, exchanges) -> {
+            final ReplayIndex index = new ReplayIndex(exchanges);
+            final RuleBuilder rule = new RuleBuilder(method);
+            rule.addCondition(index);
+            rule.addActionBundle(index.action());
+            addRule(rule);
+        });
+    }
+
+    /**
+     * Writes defined rules to snapshot file, which can be loaded by {@link #loadRules(Path)} much faster than rules
+     * are defined, for example by every forked test JVM. Only rules defined with method and URL, and returning static
+     * responses, can be exported.
+     *
+     * @param snapshotFile snapshot file
+     * @throws IOException           when snapshot file can't be written
+     * @throws IllegalStateException when some rule has other conditions or dynamic responses
+     */
+    public void exportRules(Path snapshotFile) throws IOException {
+        RuleSnapshotWriter.write(currentRuleTable().getRules(), snapshotFile);
+    }
+
+    /**
+     * Adds rules from snapshot file written by {@link #exportRules(Path)}. File is memory-mapped and only its header
+     * is read. Rules are found in precomputed key table of file, and rules and their bodies are read from it when
+     * first request for them is handled, so loading takes the same time regardless of number of rules.
+     *
+     * @param snapshotFile snapshot file
+     * @throws IOException when snapshot file can't be read
+     */
+    public void loadRules(Path snapshotFile) throws IOException {
+        final RuleSnapshot snapshot = RuleSnapshot.map(snapshotFile);
+        final RuleBuilder rule = new RuleBuilder();
+        rule.addCondition(snapshot);
+        rule.addActionBundle(snapshot.action());
+        addRule(rule);
+    }
+
+    /**
+     * Adds rules defined in JSON rule file, or in all "*.json" files of directory, taken in order of file names.
+     * Subdirectories are not searched, so they can hold body files. URLs starting with "/" use default host. Files
+     * are compiled in parallel, and body files are read when first matching request is handled. Rules are added as
+     * a group in place of this call, so rules defined later take precedence over them.
+     *
+     * @param path rule file or directory of rule files
+     * @throws IOException              when files can't be read
+     * @throws IllegalArgumentException when some file is not valid rule file
+     */
+    public void loadRuleFiles(Path path) throws IOException {
+        addRuleFiles(RuleFiles.load(path, host));
+    }
+
+    /**
+     * Adds rules the same way as {@link #loadRuleFiles(Path)}, and reloads them whenever files in directory or its
+     * subdirectories change, including body files. Single rule file is reloaded only when that file changes. New rules
+     * replace previous ones at once, without blocking requests handled at the same time. When reload fails, previous
+     * rules are kept and failure is available from returned watch.
+     *
+     * @param path rule file or directory of rule files
+     * @return watch, which must be closed to stop watching files
+     * @throws IOException              when files can't be read or watched
+     * @throws IllegalArgumentException when some file is not valid rule file
+     */
+    public RuleFileWatch watchRuleFiles(Path path) throws IOException {
+        final RuleFiles ruleFiles = RuleFiles.load(path, host);
+        final RuleFileWatch watch = new RuleFileWatch(new RuleFileWatcher(ruleFiles));
+        addRuleFiles(ruleFiles);
+        return watch;
+    }
+
+    private void addRuleFiles(RuleFiles ruleFiles) {
+        final RuleBuilder rule = new RuleBuilder();
+        rule.addCondition(ruleFiles);
+        rule.addActionBundle(ruleFiles.action());
+        addRule(rule);
+    }
+
     private HttpClientMockBuilder newRule(String method) {
-        RuleBuilder r = new RuleBuilder(method);
-        rulesUnderConstruction.add(r);
-        return new HttpClientMockBuilder(r);
+        return addRule(new RuleBuilder(method));
     }
 
     private HttpClientMockBuilder newRule(String method, String url) {
-        RuleBuilder r = new RuleBuilder(method, host, url);
-        rulesUnderConstruction.add(r);
+        return addRule(new RuleBuilder(method, host, url));
+    }
+
+    private HttpClientMockBuilder addRule(RuleBuilder r) {
+        synchronized (ruleBuilders) {
+            ruleBuilders.add(r);
+            ruleTable = ruleTable.markStale();
+        }
+        r.onChange(this::markRulesChanged);
         return new HttpClientMockBuilder(r);
     }
 
+    private void markRulesChanged() {
+        synchronized (ruleBuilders) {
+            ruleTable = ruleTable.markStale();
+        }
+    }
+
     @Override
     public Optional<CookieHandler> cookieHandler() {
         return Optional.empty();
@@ -281,54 +444,148 @@ public final class HttpClientMock extends HttpClient {
 
     @Override
     public Optional<Executor> executor() {
-        return Optional.empty();
+        return Optional.ofNullable(executor);
     }
 
     @Override
     public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException {
         Objects.requireNonNull(request,"request must be not null");
         Objects.requireNonNull(responseBodyHandler,"responseBodyHandler must be not null");
-        var rule = findNextRule(request);
-        var serverResponse = rule.produceResponse();
-        var body = submitToBodyHandler(serverResponse, responseBodyHandler);
-        var httpHeaders = HttpHeaders.of(serverResponse.headers(), (a, b) -> true);
-        return new HttpResponseProxy<>(serverResponse.statusCode(), httpHeaders, body, request);
-    }
-
-    private Rule findNextRule(HttpRequest request) {
-        synchronized (rulesUnderConstruction) {
-            rules.addAll(
-                    rulesUnderConstruction.stream()
-                            .map(RuleBuilder::build)
-                            .collect(Collectors.toList())
-            );
-            rulesUnderConstruction.clear();
+        var serverResponse = produceResponse(request);
+        waitFor(serverResponse.delay());
+        return respond(request, serverResponse, responseBodyHandler);
+    }
+
+    private <T> HttpResponse<T> respond(HttpRequest request, MockedServerResponse serverResponse, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        var body = awaitBody(submitToBodyHandler(request, serverResponse, responseBodyHandler, pacingExecutor()));
+        return toHttpResponse(request, serverResponse, body);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> respondAsync(HttpRequest request, MockedServerResponse serverResponse, HttpResponse.BodyHandler<T> responseBodyHandler, Executor asyncExecutor) {
+        final CompletableFuture<CompletableFuture<T>> body;
+        if (serverResponse.delay().isZero()) {
+            body = CompletableFuture.completedFuture(submitToBodyHandler(request, serverResponse, responseBodyHandler, asyncExecutor));
+        } else {
+            final Executor delayed = CompletableFuture.delayedExecutor(serverResponse.delay().toNanos(), TimeUnit.NANOSECONDS, asyncExecutor);
+            body = CompletableFuture.supplyAsync(() -> submitToBodyHandler(request, serverResponse, responseBodyHandler, asyncExecutor), delayed);
         }
+        return body.thenCompose(Function.identity())
+                .thenApply(b -> toHttpResponse(request, serverResponse, b));
+    }
+
+    private <T> HttpResponse<T> toHttpResponse(HttpRequest request, MockedServerResponse serverResponse, T body) {
+        return new HttpResponseProxy<>(serverResponse.statusCode(), serverResponse.httpHeaders(), body, request);
+    }
+
+    private void waitFor(Duration delay) throws InterruptedIOException {
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for delayed response");
+        }
+    }
 
-        requests.add(request);
+    private MockedServerResponse produceResponse(HttpRequest request) throws IOException {
+        final RuleTable table = currentRuleTable();
 
-        final Optional<Rule> rule = rules.stream()
-                .filter(r -> r.matches(request))
-                .reduce((a, b) -> b);
+        final RequestContext context = new RequestContext(request, table.getIndex().getJsonPaths());
+        requests.add(context);
+        expectations.record(context);
+
+        if (metricsOn || MockEvents.lookupEnabled()) {
+            return produceTracedResponse(table, context);
+        }
+        final Optional<Rule> rule = table.getIndex().findLast(context);
+
+        if (debuggingOn || rule.isEmpty()) {
+            debugger.debug(table.getRules(), request);
+        }
+
+        return rule.orElseThrow(() -> new NoMatchingRuleException(request, random.failureNote()))
+                .produceResponse(context, random);
+    }
+
+    /**
+     * Produces response like {@link #produceResponse(HttpRequest)}, recording metrics when they are on and emitting
+     * flight recorder events when they are enabled. Events are created only while some recording enables them.
+     */
+    private MockedServerResponse produceTracedResponse(RuleTable table, RequestContext context) throws IOException {
+        final HttpRequest request = context.request();
+        final MockStats currentStats = metricsOn ? stats : null;
+        final LookupEvents events = MockEvents.lookupEnabled() ? LookupEvents.begin(request) : null;
+        final long start = System.nanoTime();
+        final Optional<Rule> rule = table.getIndex().findLast(context, currentStats != null, events != null ? events.trace() : null);
+        if (currentStats != null) {
+            currentStats.recordMatching(rule.isPresent(), System.nanoTime() - start);
+        }
 
         if (debuggingOn || rule.isEmpty()) {
-            debugger.debug(rules, request);
+            debugger.debug(table.getRules(), request);
+        }
+        if (rule.isEmpty()) {
+            if (events != null) {
+                events.notMatched(table.getRules().size());
+            }
+            throw new NoMatchingRuleException(request, random.failureNote());
+        }
+        if (events != null) {
+            events.matched();
         }
 
-        return rule.orElseThrow(() -> new NoMatchingRuleException(request));
+        final MockedServerResponse response = currentStats != null
+                ? rule.get().produceResponseMeasured(context, random)
+                : rule.get().produceResponse(context, random);
+        if (events != null) {
+            events.produced(response);
+        }
+        return response;
+    }
+
+    /**
+     * Returns current rule table. When rules were defined or changed since last request, new version of table is
+     * compiled and published for all threads. When no rules were defined or changed it's a single volatile read.
+     */
+    private RuleTable currentRuleTable() {
+        final RuleTable table = ruleTable;
+        if (!table.isStale()) {
+            return table;
+        }
+        synchronized (ruleBuilders) {
+            if (ruleTable.isStale()) {
+                ruleTable = ruleTable.next(
+                        ruleBuilders.stream()
+                                .map(RuleBuilder::build)
+                                .collect(Collectors.toList())
+                );
+            }
+            return ruleTable;
+        }
     }
 
     @Override
     public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
         Objects.requireNonNull(request,"request must be not null");
         Objects.requireNonNull(responseBodyHandler,"responseBodyHandler must be not null");
+        final Executor asyncExecutor = executor;
+        if (asyncExecutor != null) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return produceResponse(request);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, asyncExecutor).thenCompose(serverResponse -> respondAsync(request, serverResponse, responseBodyHandler, asyncExecutor));
+        }
         try {
-            var rule = findNextRule(request);
-            var serverResponse = rule.produceResponse();
-            var body = submitToBodyHandler(serverResponse, responseBodyHandler);
-            var httpHeaders = HttpHeaders.of(serverResponse.headers(), (a, b) -> true);
-            var response = new HttpResponseProxy<>(serverResponse.statusCode(), httpHeaders, body, request);
-            return CompletableFuture.completedFuture(response);
+            var serverResponse = produceResponse(request);
+            if (!serverResponse.delay().isZero()) {
+                return respondAsync(request, serverResponse, responseBodyHandler, DefaultExecutor.get());
+            }
+            return CompletableFuture.completedFuture(respond(request, serverResponse, responseBodyHandler));
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
@@ -348,18 +605,104 @@ public final class HttpClientMock extends HttpClient {
         debuggingOn = false;
     }
 
-    private <T> T submitToBodyHandler(MockedServerResponse serverResponse, HttpResponse.BodyHandler<T> responseBodyHandler) {
-        var bodyBytes = serverResponse.getBodyBytes();
+    /**
+     * Sets seed used to choose probabilistic responses. Requests sent from single thread choose the same responses
+     * for the same seed. Seed is reported by failed verifications, and can be also set with system property
+     * {@value #SEED_PROPERTY}.
+     *
+     * @param seed random seed
+     */
+    public void randomSeed(long seed) {
+        this.random = new RandomSource(seed);
+    }
+
+    /**
+     * @return seed used to choose probabilistic responses
+     */
+    public long randomSeed() {
+        return random.seed();
+    }
+
+    /**
+     * Starts recording metrics of rules: how many requests they match, how many requests they don't match and how long
+     * matching and producing responses take. Metrics are off by default.
+     */
+    public void metricsOn() {
+        metricsOn = true;
+    }
+
+    public void metricsOff() {
+        metricsOn = false;
+    }
+
+    /**
+     * Returns snapshot of metrics recorded since mock was created or reset, while metrics were on.
+     *
+     * @return metrics snapshot
+     */
+    public MockMetrics metrics() {
+        final MockStats current = stats;
+        return new MockMetrics(current.requests(), current.unmatchedRequests(), current.matchingTime(), currentRuleTable().getRules());
+    }
+
+    /**
+     * Makes sendAsync complete requests on default executor, which uses virtual threads on JDK 21 and newer.
+     */
+    public void asyncOn() {
+        asyncOn(DefaultExecutor.get());
+    }
+
+    /**
+     * Makes sendAsync complete requests on provided executor. Executor is also returned by {@link #executor()}.
+     *
+     * @param executor executor used to complete asynchronous requests
+     */
+    public void asyncOn(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor must be not null");
+    }
+
+    /**
+     * Makes sendAsync complete requests on calling thread and return already completed future. This is default mode.
+     */
+    public void asyncOff() {
+        this.executor = null;
+    }
+
+    private Executor pacingExecutor() {
+        final Executor asyncExecutor = executor;
+        return asyncExecutor != null ? asyncExecutor : DefaultExecutor.get();
+    }
+
+    private <T> CompletableFuture<T> submitToBodyHandler(HttpRequest request, MockedServerResponse serverResponse, HttpResponse.BodyHandler<T> responseBodyHandler, Executor pacingExecutor) {
         var subscriber = responseBodyHandler.apply(produceResponseInfo(serverResponse));
-        var publisher = new SubmissionPublisher<List<ByteBuffer>>();
-        publisher.subscribe(subscriber);
-        if (bodyBytes.array().length != 0) {
-            publisher.submit(List.of(bodyBytes));
+        var chunkSize = serverResponse.bandwidth() > 0
+                ? Math.min(serverResponse.chunkSize(), BodySubscription.chunkSizeFor(serverResponse.bandwidth()))
+                : serverResponse.chunkSize();
+        var bodyStream = serverResponse.getBodyStream();
+        Iterator<ByteBuffer> chunks;
+        Runnable onTermination;
+        if (bodyStream.isPresent()) {
+            final Stream<ByteBuffer> stream = bodyStream.get().get();
+            chunks = BodySubscription.slices(stream.iterator(), chunkSize);
+            onTermination = stream::close;
+        } else {
+            chunks = BodySubscription.slices(serverResponse.getBodyBytes(), chunkSize);
+            onTermination = () -> {
+            };
         }
-        publisher.close();
+        if (MockEvents.bodyEnabled()) {
+            final BodyDeliveredEvent event = BodyDeliveredEvent.start(request);
+            chunks = event.count(chunks);
+            onTermination = event.commitAfter(onTermination);
+        }
+        new BodySubscription(subscriber, chunks, serverResponse.bandwidth(), pacingExecutor, onTermination).start();
+        return subscriber.getBody().toCompletableFuture();
+    }
+
+    private <T> T awaitBody(CompletableFuture<T> body) {
         try {
-            return subscriber.getBody().toCompletableFuture().get();
-        } catch (InterruptedException | ExecutionException e) {
+            return body.isDone() ? body.join() : body.get();
+        } catch (InterruptedException | ExecutionException | CompletionException e) {
             throw new IllegalStateException("Error reading the mocked response body - did you forget to provide it? " +
                     "If there should be no body, try using BodyHandlers.discarding() when making the request", e);
         }
@@ -374,7 +717,7 @@ public final class HttpClientMock extends HttpClient {
 
             @Override
             public HttpHeaders headers() {
-                return HttpHeaders.of(response.headers(), (a, b) -> true);
+                return response.httpHeaders();
             }
 
             @Override
@@ -1,14 +1,22 @@
 package com.pgssoft.httpclient;
 
+import com.pgssoft.httpclient.internal.condition.BodyBytesCondition;
 import com.pgssoft.httpclient.internal.condition.BodyCondition;
 import com.pgssoft.httpclient.internal.condition.HeaderCondition;
+import com.pgssoft.httpclient.internal.condition.JsonPathCondition;
 import com.pgssoft.httpclient.internal.rule.RuleBuilder;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 
 import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public final class HttpClientMockBuilder {
 
@@ -120,6 +128,34 @@ public final class HttpClientMockBuilder {
         return this;
     }
 
+    /**
+     * Adds body bytes condition. Raw request body must match provided matcher, see {@link BodyMatchers}.
+     *
+     * @param matcher body matcher
+     * @return condition builder
+     */
+    public HttpClientMockBuilder withBodyBytes(Matcher<? super ByteBuffer> matcher) {
+        Objects.requireNonNull(matcher, "matcher must be not null");
+        ruleBuilder.addCondition(new BodyBytesCondition(matcher));
+        return this;
+    }
+
+    /**
+     * Adds JSON path condition. Request body must be JSON document with value at provided path matching provided
+     * matcher. Strings, numbers, booleans and nulls are passed to matcher as Java values, objects and arrays as their
+     * JSON text.
+     *
+     * @param path    JSON path, like "$.user.addresses[0].city"
+     * @param matcher value matcher
+     * @return condition builder
+     */
+    public HttpClientMockBuilder withJsonPath(String path, Matcher<?> matcher) {
+        Objects.requireNonNull(path, "path must be not null");
+        Objects.requireNonNull(matcher, "matcher must be not null");
+        ruleBuilder.addCondition(new JsonPathCondition(path, matcher));
+        return this;
+    }
+
     /**
      * Adds host condition. Request host must be equal to provided value.
      *
@@ -140,7 +176,21 @@ public final class HttpClientMockBuilder {
      */
     public HttpClientMockBuilder withPath(String path) {
         Objects.requireNonNull(path, "path must be not null");
-        return withPath(Matchers.equalTo(path));
+        ruleBuilder.setPathCondition(path);
+        return this;
+    }
+
+    /**
+     * Adds path template condition. Segments of template surrounded by braces, like "{id}" in "/users/{id}", match
+     * any single, non empty path segment, other segments must be equal to request path segments.
+     *
+     * @param template path template
+     * @return condition builder
+     */
+    public HttpClientMockBuilder withPathTemplate(String template) {
+        Objects.requireNonNull(template, "template must be not null");
+        ruleBuilder.setPathTemplate(template);
+        return this;
     }
 
     /**
@@ -189,6 +239,132 @@ public final class HttpClientMockBuilder {
         return responseBuilder.doReturn(statusCode, response);
     }
 
+    /**
+     * Adds action which returns provided bytes and status 200. Array is not copied, so it must not be modified
+     * afterwards.
+     *
+     * @param response response to return
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnBytes(byte[] response) {
+        Objects.requireNonNull(response, "response must be not null");
+        return responseBuilder.doReturnBytes(response);
+    }
+
+    /**
+     * Adds action which returns provided bytes and status. Array is not copied, so it must not be modified afterwards.
+     *
+     * @param statusCode status to return
+     * @param response   response to return
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnBytes(int statusCode, byte[] response) {
+        Objects.requireNonNull(response, "response must be not null");
+        return responseBuilder.doReturnBytes(statusCode, response);
+    }
+
+    /**
+     * Adds action which returns content of provided file and status 200. File is memory-mapped when it is needed for
+     * the first time, so even very large files don't occupy heap. Error of reading file is thrown from send.
+     *
+     * @param file file to return
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnFile(Path file) {
+        Objects.requireNonNull(file, "file must be not null");
+        return responseBuilder.doReturnFile(file);
+    }
+
+    /**
+     * Adds action which returns content of provided file and status. File is memory-mapped when it is needed for the
+     * first time, so even very large files don't occupy heap. Error of reading file is thrown from send.
+     *
+     * @param statusCode status to return
+     * @param file       file to return
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnFile(int statusCode, Path file) {
+        Objects.requireNonNull(file, "file must be not null");
+        return responseBuilder.doReturnFile(statusCode, file);
+    }
+
+    /**
+     * Adds action which streams body generated chunk by chunk, with status 200. Chunks are encoded in UTF-8 and
+     * generated only when body subscriber requests them, so stream may be infinite, like server-sent events. Supplier
+     * is called for every response, and the stream is closed when body is completed or cancelled.
+     *
+     * @param chunks source of body chunks
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnChunks(Supplier<? extends Stream<String>> chunks) {
+        Objects.requireNonNull(chunks, "chunks must be not null");
+        return responseBuilder.doReturnChunks(chunks);
+    }
+
+    /**
+     * Adds action which streams body generated chunk by chunk, with provided status. Chunks are encoded in UTF-8 and
+     * generated only when body subscriber requests them, so stream may be infinite, like server-sent events. Supplier
+     * is called for every response, and the stream is closed when body is completed or cancelled.
+     *
+     * @param statusCode status to return
+     * @param chunks     source of body chunks
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnChunks(int statusCode, Supplier<? extends Stream<String>> chunks) {
+        Objects.requireNonNull(chunks, "chunks must be not null");
+        return responseBuilder.doReturnChunks(statusCode, chunks);
+    }
+
+    /**
+     * Adds action which returns body computed from request, in UTF-8 and status 200.
+     *
+     * @param answer function computing body from request
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doAnswer(Function<? super HttpRequest, String> answer) {
+        Objects.requireNonNull(answer, "answer must be not null");
+        return responseBuilder.doAnswer(answer);
+    }
+
+    /**
+     * Adds action which returns body computed from request, in UTF-8 and provided status.
+     *
+     * @param statusCode status to return
+     * @param answer     function computing body from request
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doAnswer(int statusCode, Function<? super HttpRequest, String> answer) {
+        Objects.requireNonNull(answer, "answer must be not null");
+        return responseBuilder.doAnswer(statusCode, answer);
+    }
+
+    /**
+     * Adds action which returns body rendered from template, in UTF-8 and status 200. Placeholder
+     * <code>${name}</code> is replaced by value of path variable, like "id" of path "/users/{id}", and
+     * <code>${query.name}</code> by value of query parameter.
+     *
+     * @param template response template
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnTemplate(String template) {
+        Objects.requireNonNull(template, "template must be not null");
+        return responseBuilder.doReturnTemplate(template);
+    }
+
+    /**
+     * Adds action which returns body rendered from template, in UTF-8 and provided status. Placeholder
+     * <code>${name}</code> is replaced by value of path variable, like "id" of path "/users/{id}", and
+     * <code>${query.name}</code> by value of query parameter.
+     *
+     * @param statusCode status to return
+     * @param template   response template
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doReturnTemplate(int statusCode, String template) {
+        Objects.requireNonNull(template, "template must be not null");
+        return responseBuilder.doReturnTemplate(statusCode, template);
+    }
+
     /**
      * Adds action which returns provided response in provided charset and status 200.
      *
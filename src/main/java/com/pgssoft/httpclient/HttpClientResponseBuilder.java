@@ -4,8 +4,16 @@ import com.pgssoft.httpclient.internal.action.*;
 import com.pgssoft.httpclient.internal.rule.RuleBuilder;
 
 import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public final class HttpClientResponseBuilder {
 
@@ -26,6 +34,46 @@ public final class HttpClientResponseBuilder {
         return doAction(new SetStatusAction(statusCode));
     }
 
+    public HttpClientResponseBuilder withDelay(Duration delay) {
+        Objects.requireNonNull(delay, "delay must be not null");
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay must be not negative");
+        }
+        return doAction(new SetDelayAction(delay));
+    }
+
+    public HttpClientResponseBuilder withLatencyDistribution(LatencyDistribution distribution) {
+        Objects.requireNonNull(distribution, "distribution must be not null");
+        return doAction(new SetDelayAction(distribution));
+    }
+
+    public HttpClientResponseBuilder withBandwidth(long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("bandwidth must be positive");
+        }
+        return doAction(new SetBandwidthAction(bytesPerSecond));
+    }
+
+    public HttpClientResponseBuilder withChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+        return doAction(new SetChunkSizeAction(chunkSize));
+    }
+
+    /**
+     * Sets which of many responses of rule is returned for next request. By default responses are returned in order
+     * and the last one is repeated.
+     *
+     * @param sequencing response sequencing
+     * @return response builder
+     */
+    public HttpClientResponseBuilder withSequencing(ResponseSequencing sequencing) {
+        Objects.requireNonNull(sequencing, "sequencing must be not null");
+        ruleBuilder.setSequencing(sequencing);
+        return this;
+    }
+
     public HttpClientResponseBuilder doAction(Action action) {
         ruleBuilder.addAction(action);
         return this;
@@ -49,6 +97,95 @@ public final class HttpClientResponseBuilder {
         return new HttpClientResponseBuilder(ruleBuilder);
     }
 
+    public HttpClientResponseBuilder doReturnBytes(byte[] response) {
+        return doReturnBytes(200, response);
+    }
+
+    public HttpClientResponseBuilder doReturnBytes(int statusCode, byte[] response) {
+        ruleBuilder.addActionBundle(new SetBodyBytesAction(ByteBuffer.wrap(response)));
+        ruleBuilder.addAction(new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    public HttpClientResponseBuilder doReturnFile(Path file) {
+        return doReturnFile(200, file);
+    }
+
+    public HttpClientResponseBuilder doReturnFile(int statusCode, Path file) {
+        ruleBuilder.addActionBundle(new SetBodyFileAction(file));
+        ruleBuilder.addAction(new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    public HttpClientResponseBuilder doReturnChunks(Supplier<? extends Stream<String>> chunks) {
+        return doReturnChunks(200, chunks);
+    }
+
+    public HttpClientResponseBuilder doReturnChunks(int statusCode, Supplier<? extends Stream<String>> chunks) {
+        ruleBuilder.addActionBundle(new SetBodyStreamAction(() -> chunks.get().map(StandardCharsets.UTF_8::encode)));
+        ruleBuilder.addAction(new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    public HttpClientResponseBuilder doAnswer(Function<? super HttpRequest, String> answer) {
+        return doAnswer(200, answer);
+    }
+
+    public HttpClientResponseBuilder doAnswer(int statusCode, Function<? super HttpRequest, String> answer) {
+        ruleBuilder.addActionBundle(new AnswerAction(answer, StandardCharsets.UTF_8));
+        ruleBuilder.addAction(new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    public HttpClientResponseBuilder doReturnTemplate(String template) {
+        return doReturnTemplate(200, template);
+    }
+
+    public HttpClientResponseBuilder doReturnTemplate(int statusCode, String template) {
+        ruleBuilder.addActionBundle(new SetBodyTemplateAction(template, StandardCharsets.UTF_8));
+        ruleBuilder.addAction(new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    /**
+     * Adds response which replaces regular response of rule with provided probability, for example to inject
+     * failures into part of requests. Probabilities of all such responses of rule must not sum above 1.
+     *
+     * @param probability probability of returning response
+     * @param statusCode  response status
+     * @param response    response body
+     * @return response builder, which actions are added to probable response
+     */
+    public HttpClientResponseBuilder doReturnWithProbability(double probability, int statusCode, String response) {
+        ruleBuilder.addProbableActionBundle(probability, new SetBodyStringAction(response, StandardCharsets.UTF_8));
+        ruleBuilder.addAction(new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    /**
+     * Adds response with empty body, which replaces regular response of rule with provided probability.
+     *
+     * @param probability probability of returning response
+     * @param statusCode  response status
+     * @return response builder, which actions are added to probable response
+     */
+    public HttpClientResponseBuilder doReturnStatusWithProbability(double probability, int statusCode) {
+        ruleBuilder.addProbableActionBundle(probability, new SetStatusAction(statusCode));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
+    /**
+     * Makes request fail with provided exception with provided probability, instead of returning regular response.
+     *
+     * @param probability probability of throwing exception
+     * @param exception   exception to throw
+     * @return response builder
+     */
+    public HttpClientResponseBuilder doThrowExceptionWithProbability(double probability, IOException exception) {
+        ruleBuilder.addProbableActionBundle(probability, new ThrowExceptionAction(exception));
+        return new HttpClientResponseBuilder(ruleBuilder);
+    }
+
     public HttpClientResponseBuilder doReturnStatus(int statusCode) {
         ruleBuilder.addActionBundle(new SetStatusAction(statusCode));
         return new HttpClientResponseBuilder(ruleBuilder);
@@ -1,9 +1,10 @@
 package com.pgssoft.httpclient;
 
+import com.pgssoft.httpclient.internal.ExpectationRegistry;
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestJournal;
 import com.pgssoft.httpclient.internal.rule.RuleBuilder;
 
-import java.net.http.HttpRequest;
-import java.util.List;
 import java.util.Objects;
 
 import static com.pgssoft.httpclient.internal.HttpMethods.*;
@@ -11,21 +12,25 @@ import static com.pgssoft.httpclient.internal.HttpMethods.*;
 public final class HttpClientVerify {
 
     private final String defaultHost;
-    private final List<HttpRequest> requests;
+    private final RequestJournal requests;
+    private final ExpectationRegistry expectations;
+    private final RandomSource random;
 
-    HttpClientVerify(String defaultHost, List<HttpRequest> requests) {
+    HttpClientVerify(String defaultHost, RequestJournal requests, ExpectationRegistry expectations, RandomSource random) {
         this.requests = requests;
         this.defaultHost = defaultHost;
+        this.expectations = expectations;
+        this.random = random;
     }
 
     private HttpClientVerifyBuilder newRule(String method) {
         RuleBuilder r = new RuleBuilder(method);
-        return new HttpClientVerifyBuilder(r, requests);
+        return new HttpClientVerifyBuilder(r, requests, expectations, random);
     }
 
     private HttpClientVerifyBuilder newRule(String method, String url) {
         RuleBuilder r = new RuleBuilder(method, defaultHost, url);
-        return new HttpClientVerifyBuilder(r, requests);
+        return new HttpClientVerifyBuilder(r, requests, expectations, random);
     }
 
     public HttpClientVerifyBuilder post(String url) {
@@ -1,12 +1,18 @@
 package com.pgssoft.httpclient;
 
+import com.pgssoft.httpclient.internal.ExpectationRegistry;
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.RequestJournal;
+import com.pgssoft.httpclient.internal.condition.BodyBytesCondition;
 import com.pgssoft.httpclient.internal.condition.BodyCondition;
 import com.pgssoft.httpclient.internal.condition.HeaderCondition;
+import com.pgssoft.httpclient.internal.condition.JsonPathCondition;
 import com.pgssoft.httpclient.internal.rule.Rule;
 import com.pgssoft.httpclient.internal.rule.RuleBuilder;
 import org.hamcrest.Matcher;
 
-import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
 
@@ -15,11 +21,15 @@ import static org.hamcrest.Matchers.equalTo;
 public final class HttpClientVerifyBuilder {
 
     private final RuleBuilder ruleBuilder;
-    private final List<HttpRequest> requests;
+    private final RequestJournal requests;
+    private final ExpectationRegistry expectations;
+    private final RandomSource random;
 
-    HttpClientVerifyBuilder(RuleBuilder ruleBuilder, List<HttpRequest> requests) {
+    HttpClientVerifyBuilder(RuleBuilder ruleBuilder, RequestJournal requests, ExpectationRegistry expectations, RandomSource random) {
         this.requests = requests;
         this.ruleBuilder = ruleBuilder;
+        this.expectations = expectations;
+        this.random = random;
     }
 
     /**
@@ -122,6 +132,34 @@ public final class HttpClientVerifyBuilder {
         return this;
     }
 
+    /**
+     * Adds body bytes condition. Raw request body must match provided matcher, see {@link BodyMatchers}.
+     *
+     * @param matcher body matcher
+     * @return verification builder
+     */
+    public HttpClientVerifyBuilder withBodyBytes(Matcher<? super ByteBuffer> matcher) {
+        Objects.requireNonNull(matcher, "matcher must be not null");
+        ruleBuilder.addCondition(new BodyBytesCondition(matcher));
+        return this;
+    }
+
+    /**
+     * Adds JSON path condition. Request body must be JSON document with value at provided path matching provided
+     * matcher. Strings, numbers, booleans and nulls are passed to matcher as Java values, objects and arrays as their
+     * JSON text.
+     *
+     * @param path    JSON path, like "$.user.addresses[0].city"
+     * @param matcher value matcher
+     * @return verification builder
+     */
+    public HttpClientVerifyBuilder withJsonPath(String path, Matcher<?> matcher) {
+        Objects.requireNonNull(path, "path must be not null");
+        Objects.requireNonNull(matcher, "matcher must be not null");
+        ruleBuilder.addCondition(new JsonPathCondition(path, matcher));
+        return this;
+    }
+
     /**
      * Adds host condition. Request host must be equal to provided value.
      *
@@ -142,7 +180,21 @@ public final class HttpClientVerifyBuilder {
      */
     public HttpClientVerifyBuilder withPath(String path) {
         Objects.requireNonNull(path, "path must be not null");
-        return withPath(equalTo(path));
+        ruleBuilder.setPathCondition(path);
+        return this;
+    }
+
+    /**
+     * Adds path template condition. Segments of template surrounded by braces, like "{id}" in "/users/{id}", match
+     * any single, non empty path segment, other segments must be equal to request path segments.
+     *
+     * @param template path template
+     * @return verification builder
+     */
+    public HttpClientVerifyBuilder withPathTemplate(String template) {
+        Objects.requireNonNull(template, "template must be not null");
+        ruleBuilder.setPathTemplate(template);
+        return this;
     }
 
     /**
@@ -164,6 +216,16 @@ public final class HttpClientVerifyBuilder {
         called(0);
     }
 
+    /**
+     * Registers defined conditions as expectation, which counts matching requests as they are sent. Expectation must
+     * be registered before requests are sent, and then its verification doesn't scan previous requests.
+     *
+     * @return registered expectation
+     */
+    public Expectation register() {
+        return new Expectation(expectations.register(ruleBuilder.build()), random);
+    }
+
     /**
      * Verifies if there was exactly one request matching defined conditions.
      */
@@ -181,17 +243,30 @@ public final class HttpClientVerifyBuilder {
     }
 
     /**
-     * Verifies number of request matching defined conditions.
+     * Verifies number of request matching defined conditions. When journal policy of mock evicted some requests,
+     * verification fails also if its result could be changed by evicted requests.
      *
      * @param numberOfCalls expected number of calls
      */
     public void called(Matcher<Integer> numberOfCalls) {
         Rule rule = ruleBuilder.build();
-        int matchingCalls = (int)requests.stream()
+        List<RequestContext> retained = requests.snapshot();
+        long evicted = requests.evicted();
+        int matchingCalls = (int) retained.stream()
                 .filter(rule::matches)
                 .count();
         if (!numberOfCalls.matches(matchingCalls)) {
-            throw new IllegalStateException(String.format("Expected %s calls, but found %s.", numberOfCalls, matchingCalls));
+            String message = String.format("Expected %s calls, but found %s.", numberOfCalls, matchingCalls);
+            if (evicted > 0) {
+                message += String.format(" Journal policy '%s' evicted %s requests, which were not checked.", requests, evicted);
+            }
+            throw new IllegalStateException(message + random.failureNote());
+        }
+        if (evicted > 0 && !numberOfCalls.matches((int) Math.min(Integer.MAX_VALUE, matchingCalls + evicted))) {
+            throw new IllegalStateException(String.format(
+                    "Verification is inconclusive: found %s matching calls among %s retained requests, but journal policy '%s' evicted %s requests."
+                            + " Register expectation before sending requests to count all of them.",
+                    matchingCalls, retained.size(), requests, evicted) + random.failureNote());
         }
     }
 }
@@ -0,0 +1,83 @@
+package com.pgssoft.httpclient;
+
+import com.pgssoft.httpclient.internal.RequestJournal;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Decides which requests are retained by mock for later verification. By default all requests are retained, which may
+ * use a lot of memory in long running load tests. Bounded policies keep memory constant, but verification may depend
+ * on requests which are not retained anymore; such verification fails with message describing the policy.
+ */
+public final class JournalPolicy {
+
+    private final Supplier<RequestJournal> journalFactory;
+
+    private JournalPolicy(Supplier<RequestJournal> journalFactory) {
+        this.journalFactory = journalFactory;
+    }
+
+    /**
+     * All requests are retained.
+     *
+     * @return journal policy
+     */
+    public static JournalPolicy unbounded() {
+        return new JournalPolicy(RequestJournal::unbounded);
+    }
+
+    /**
+     * Only provided number of most recent requests is retained.
+     *
+     * @param capacity number of retained requests
+     * @return journal policy
+     */
+    public static JournalPolicy lastRequests(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        return new JournalPolicy(() -> RequestJournal.lastRequests(capacity));
+    }
+
+    /**
+     * Only requests sent within provided time from now are retained.
+     *
+     * @param window time for which requests are retained
+     * @return journal policy
+     */
+    public static JournalPolicy timeWindow(Duration window) {
+        Objects.requireNonNull(window, "window must be not null");
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        return new JournalPolicy(() -> RequestJournal.timeWindow(window));
+    }
+
+    /**
+     * Evenly spread fraction of requests is retained, for example every tenth request for rate 0.1.
+     *
+     * @param rate fraction of retained requests, greater than 0 and not greater than 1
+     * @return journal policy
+     */
+    public static JournalPolicy sampling(double rate) {
+        if (!(rate > 0 && rate <= 1)) {
+            throw new IllegalArgumentException("rate must be in range (0, 1]");
+        }
+        return new JournalPolicy(() -> RequestJournal.sampling(rate));
+    }
+
+    /**
+     * No requests are retained, only their number is counted.
+     *
+     * @return journal policy
+     */
+    public static JournalPolicy countersOnly() {
+        return new JournalPolicy(RequestJournal::countersOnly);
+    }
+
+    RequestJournal createJournal() {
+        return journalFactory.get();
+    }
+}
@@ -0,0 +1,132 @@
+package com.pgssoft.httpclient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Source of simulated response latencies. Mock draws latencies with {@link #next(SplittableRandom)} from generator
+ * seeded with mock seed, so run with the same seed gets the same latencies.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * @return latency of next response
+     */
+    Duration next();
+
+    /**
+     * Draws latency from given generator. Distributions of this interface draw all their random values from it, while
+     * custom distributions by default ignore it and use {@link #next()}.
+     *
+     * @param random generator to draw random values from
+     * @return latency of next response
+     */
+    default Duration next(SplittableRandom random) {
+        return next();
+    }
+
+    /**
+     * Every response is delayed by the same time.
+     *
+     * @param delay response delay
+     * @return latency distribution
+     */
+    static LatencyDistribution fixed(Duration delay) {
+        Objects.requireNonNull(delay, "delay must be not null");
+        return () -> delay;
+    }
+
+    /**
+     * Response delay is uniformly distributed between min (inclusive) and max (exclusive).
+     *
+     * @param min minimal delay
+     * @param max maximal delay
+     * @return latency distribution
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        Objects.requireNonNull(min, "min must be not null");
+        Objects.requireNonNull(max, "max must be not null");
+        if (min.compareTo(max) >= 0) {
+            throw new IllegalArgumentException("min must be lower than max");
+        }
+        final long minNanos = min.toNanos();
+        final long maxNanos = max.toNanos();
+        return drawnFrom(random -> Duration.ofNanos(random.nextLong(minNanos, maxNanos)));
+    }
+
+    /**
+     * Response delay has log-normal distribution, which is typical for network latencies.
+     *
+     * @param median median delay
+     * @param sigma  standard deviation of delay logarithm, higher values give longer tail
+     * @return latency distribution
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        Objects.requireNonNull(median, "median must be not null");
+        if (sigma < 0) {
+            throw new IllegalArgumentException("sigma must be not negative");
+        }
+        final double mu = Math.log(median.toNanos());
+        return drawnFrom(random -> Duration.ofNanos((long) Math.exp(mu + sigma * gaussian(random))));
+    }
+
+    /**
+     * Response delay follows recorded percentiles, for example p50, p90 and p99 of production service. Delays between
+     * recorded percentiles are interpolated linearly, delays below the lowest one are equal to the lowest value and
+     * delays above the highest one are equal to the highest value.
+     *
+     * @param percentiles delays mapped by percentile from range (0, 100]
+     * @return latency distribution
+     */
+    static LatencyDistribution percentiles(Map<Double, Duration> percentiles) {
+        Objects.requireNonNull(percentiles, "percentiles must be not null");
+        if (percentiles.isEmpty()) {
+            throw new IllegalArgumentException("at least one percentile is required");
+        }
+        final TreeMap<Double, Duration> sorted = new TreeMap<>(percentiles);
+        if (sorted.firstKey() <= 0 || sorted.lastKey() > 100) {
+            throw new IllegalArgumentException("percentiles must be in range (0, 100]");
+        }
+        return drawnFrom(random -> {
+            final double percentile = random.nextDouble(100);
+            final Map.Entry<Double, Duration> lower = sorted.floorEntry(percentile);
+            final Map.Entry<Double, Duration> upper = sorted.ceilingEntry(percentile);
+            if (lower == null) {
+                return upper.getValue();
+            }
+            if (upper == null || upper.getKey().equals(lower.getKey())) {
+                return lower.getValue();
+            }
+            final double ratio = (percentile - lower.getKey()) / (upper.getKey() - lower.getKey());
+            final long lowerNanos = lower.getValue().toNanos();
+            return Duration.ofNanos(lowerNanos + (long) (ratio * (upper.getValue().toNanos() - lowerNanos)));
+        });
+    }
+
+    private static LatencyDistribution drawnFrom(Function<SplittableRandom, Duration> draw) {
+        return new LatencyDistribution() {
+            @Override
+            public Duration next() {
+                return draw.apply(new SplittableRandom());
+            }
+
+            @Override
+            public Duration next(SplittableRandom random) {
+                return draw.apply(random);
+            }
+        };
+    }
+
+    /**
+     * Draws value of standard normal distribution with Box-Muller transform, as {@link SplittableRandom} has no
+     * Gaussian method.
+     */
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
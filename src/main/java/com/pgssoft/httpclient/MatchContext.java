@@ -0,0 +1,46 @@
+package com.pgssoft.httpclient;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Request prepared for matching. It is created once per request and shared by all evaluated rules, so parts of the
+ * request like query parameters or body are parsed only once, when first condition asks for them.
+ */
+public interface MatchContext {
+
+    /**
+     * @return matched request
+     */
+    HttpRequest request();
+
+    /**
+     * @return request URI
+     */
+    URI uri();
+
+    /**
+     * @return decoded request path, empty string if request has no path
+     */
+    String path();
+
+    /**
+     * @return query parameters in order of first occurrence, mapped to all their values
+     */
+    Map<String, List<String>> queryParameters();
+
+    /**
+     * @return request headers
+     */
+    HttpHeaders headers();
+
+    /**
+     * @return read-only request body, empty if request has no body publisher
+     */
+    Optional<ByteBuffer> body();
+}
@@ -0,0 +1,199 @@
+package com.pgssoft.httpclient;
+
+import com.pgssoft.httpclient.internal.Histogram;
+import com.pgssoft.httpclient.internal.rule.Rule;
+import com.pgssoft.httpclient.internal.rule.RuleStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of metrics recorded by mock while metrics are on. Shows which rules handle most requests, which rules are
+ * never hit, and where time is spent while matching requests and producing responses.
+ */
+public final class MockMetrics {
+
+    private final long requests;
+    private final long unmatchedRequests;
+    private final Timing matchingTime;
+    private final List<RuleMetrics> rules;
+
+    MockMetrics(long requests, long unmatchedRequests, Histogram matchingTime, List<Rule> rules) {
+        this.requests = requests;
+        this.unmatchedRequests = unmatchedRequests;
+        this.matchingTime = new Timing(matchingTime);
+        final List<RuleMetrics> ruleMetrics = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            ruleMetrics.add(new RuleMetrics(i, rules.get(i)));
+        }
+        this.rules = Collections.unmodifiableList(ruleMetrics);
+    }
+
+    /**
+     * @return number of handled requests
+     */
+    public long requests() {
+        return requests;
+    }
+
+    /**
+     * @return number of requests not matched by any rule
+     */
+    public long unmatchedRequests() {
+        return unmatchedRequests;
+    }
+
+    /**
+     * @return time of finding rule for request, including evaluation of all candidate rules
+     */
+    public Timing matchingTime() {
+        return matchingTime;
+    }
+
+    /**
+     * @return metrics of every rule, in order of definition
+     */
+    public List<RuleMetrics> rules() {
+        return rules;
+    }
+
+    /**
+     * @return metrics of rules which never matched any request
+     */
+    public List<RuleMetrics> deadRules() {
+        return rules.stream().filter(rule -> rule.hits() == 0).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder(String.format("requests: %d, unmatched: %d, matching time: %s%n",
+                requests, unmatchedRequests, matchingTime));
+        rules.forEach(rule -> result.append(rule).append(System.lineSeparator()));
+        return result.toString();
+    }
+
+    public static final class RuleMetrics {
+
+        private final int index;
+        private final String description;
+        private final long hits;
+        private final long misses;
+        private final Timing matchingTime;
+        private final Timing productionTime;
+
+        RuleMetrics(int index, Rule rule) {
+            final RuleStats stats = rule.stats();
+            this.index = index;
+            this.description = rule.describe();
+            this.hits = stats.hits();
+            this.misses = stats.misses();
+            this.matchingTime = new Timing(stats.matchingTime());
+            this.productionTime = new Timing(stats.productionTime());
+        }
+
+        /**
+         * @return position of rule in order of definition, starting from 0
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * @return method, host and path of rule
+         */
+        public String description() {
+            return description;
+        }
+
+        /**
+         * @return number of requests matched by rule
+         */
+        public long hits() {
+            return hits;
+        }
+
+        /**
+         * @return number of requests for which rule was evaluated, but didn't match
+         */
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * @return time of evaluating rule conditions
+         */
+        public Timing matchingTime() {
+            return matchingTime;
+        }
+
+        /**
+         * @return time of producing response by rule actions
+         */
+        public Timing productionTime() {
+            return productionTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Rule %d (%s): hits: %d, misses: %d, matching time: %s, production time: %s",
+                    index + 1, description, hits, misses, matchingTime, productionTime);
+        }
+    }
+
+    /**
+     * Distribution of recorded durations. Percentiles are reported with relative error below 12.5%.
+     */
+    public static final class Timing {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        Timing(Histogram histogram) {
+            this.counts = histogram.counts();
+            this.count = Arrays.stream(counts).sum();
+            this.totalNanos = histogram.totalNanos();
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public Duration total() {
+            return Duration.ofNanos(totalNanos);
+        }
+
+        public Duration mean() {
+            return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos / count);
+        }
+
+        /**
+         * @param percentile percentile in range [0, 100]
+         * @return the highest duration below which provided percent of recorded durations fall
+         */
+        public Duration percentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be in range [0, 100]");
+            }
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Duration.ofNanos(Histogram.highestValueOf(i));
+                }
+            }
+            return Duration.ZERO;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count %d, mean %dns, p50 %dns, p99 %dns",
+                    count, mean().toNanos(), percentile(50).toNanos(), percentile(99).toNanos());
+        }
+    }
+}
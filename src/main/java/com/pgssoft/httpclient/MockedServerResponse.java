@@ -1,18 +1,37 @@
 package com.pgssoft.httpclient;
 
+import java.net.http.HttpHeaders;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class MockedServerResponse {
 
+    /**
+     * Default size of chunks in which body is delivered to body subscriber.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
     private final int statusCode;
     private final Map<String, List<String>> headers;
     private final ByteBuffer bodyBytes;
+    private final Supplier<? extends Stream<ByteBuffer>> bodyStream;
+    private final Duration delay;
+    private final long bandwidth;
+    private final int chunkSize;
+    private final HttpHeaders httpHeaders;
 
-    private MockedServerResponse(int statusCode, Map<String, List<String>> headers, ByteBuffer bodyBytes) {
-        this.statusCode = statusCode;
+    private MockedServerResponse(Builder builder, Map<String, List<String>> headers, ByteBuffer bodyBytes) {
+        this.statusCode = builder.statusCode;
         this.headers = headers;
         this.bodyBytes = bodyBytes;
+        this.bodyStream = builder.bodyStream;
+        this.delay = builder.delay;
+        this.bandwidth = builder.bandwidth;
+        this.chunkSize = builder.chunkSize;
+        this.httpHeaders = HttpHeaders.of(headers, (a, b) -> true);
     }
 
     public int statusCode() {
@@ -23,8 +42,43 @@ public class MockedServerResponse {
         return headers;
     }
 
+    /**
+     * @return response headers ready to be returned by HttpResponse
+     */
+    public HttpHeaders httpHeaders() {
+        return httpHeaders;
+    }
+
     public ByteBuffer getBodyBytes() {
-        return bodyBytes;
+        return bodyBytes.duplicate();
+    }
+
+    /**
+     * @return source of streamed body chunks, empty if body is provided as bytes
+     */
+    public Optional<Supplier<? extends Stream<ByteBuffer>>> getBodyStream() {
+        return Optional.ofNullable(bodyStream);
+    }
+
+    /**
+     * @return time after which response is available
+     */
+    public Duration delay() {
+        return delay;
+    }
+
+    /**
+     * @return number of body bytes delivered per second, 0 if body is delivered at once
+     */
+    public long bandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * @return maximal size of single body chunk passed to body subscriber
+     */
+    public int chunkSize() {
+        return chunkSize;
     }
 
 
@@ -33,6 +87,70 @@ public class MockedServerResponse {
         private int statusCode;
         private final Map<String, List<String>> headers = new HashMap<>();
         private ByteBuffer bodyBytes = ByteBuffer.wrap(new byte[]{});
+        private Supplier<? extends Stream<ByteBuffer>> bodyStream;
+        private Duration delay = Duration.ZERO;
+        private long bandwidth;
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private final MatchContext request;
+        private final Supplier<Map<String, String>> pathVariablesSupplier;
+        private Map<String, String> pathVariables;
+        private final Supplier<SplittableRandom> random;
+
+        public Builder() {
+            this(null, Map::of);
+        }
+
+        /**
+         * @param request       handled request
+         * @param pathVariables values of path template variables of matched rule, computed when first needed
+         */
+        public Builder(MatchContext request, Supplier<Map<String, String>> pathVariables) {
+            this(request, pathVariables, SplittableRandom::new);
+        }
+
+        /**
+         * @param request       handled request
+         * @param pathVariables values of path template variables of matched rule, computed when first needed
+         * @param random        random generator of current thread, seeded with mock seed
+         */
+        public Builder(MatchContext request, Supplier<Map<String, String>> pathVariables,
+                       Supplier<SplittableRandom> random) {
+            this.request = request;
+            this.pathVariablesSupplier = pathVariables;
+            this.random = random;
+        }
+
+        /**
+         * Returns request for which response is built, so actions can produce response depending on it.
+         *
+         * @return handled request, empty when response is built outside of request handling
+         */
+        public Optional<MatchContext> request() {
+            return Optional.ofNullable(request);
+        }
+
+        /**
+         * Returns values of variables of path template of matched rule, like "id" for rule defined with path
+         * "/users/{id}".
+         *
+         * @return variable values mapped by variable names, empty if rule has no path template
+         */
+        public Map<String, String> pathVariables() {
+            if (pathVariables == null) {
+                pathVariables = pathVariablesSupplier.get();
+            }
+            return pathVariables;
+        }
+
+        /**
+         * Returns random generator which actions should use to produce random values, so mock seed reproduces them.
+         * Generator belongs to current thread and must not be shared with other threads.
+         *
+         * @return random generator
+         */
+        public SplittableRandom random() {
+            return random.get();
+        }
 
         public void setStatusCode(int statusCode) {
             this.statusCode = statusCode;
@@ -44,10 +162,52 @@ public class MockedServerResponse {
 
         public void setBodyBytes(ByteBuffer bodyBytes) {
             this.bodyBytes = bodyBytes;
+            this.bodyStream = null;
+        }
+
+        /**
+         * Sets body which is generated chunk by chunk while body subscriber requests it. Supplier is called for every
+         * response, and returned stream may be infinite. Stream is closed when body is completed or cancelled.
+         *
+         * @param bodyStream source of body chunks
+         */
+        public void setBodyStream(Supplier<? extends Stream<ByteBuffer>> bodyStream) {
+            this.bodyStream = bodyStream;
+            this.bodyBytes = ByteBuffer.wrap(new byte[]{});
+        }
+
+        public void setDelay(Duration delay) {
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("delay must be not negative");
+            }
+            this.delay = delay;
+        }
+
+        public void setBandwidth(long bytesPerSecond) {
+            if (bytesPerSecond < 0) {
+                throw new IllegalArgumentException("bandwidth must be not negative");
+            }
+            this.bandwidth = bytesPerSecond;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunk size must be positive");
+            }
+            this.chunkSize = chunkSize;
         }
 
         public MockedServerResponse build() {
-            return new MockedServerResponse(statusCode, headers, bodyBytes);
+            return new MockedServerResponse(this, headers, bodyBytes);
+        }
+
+        /**
+         * Builds immutable response, which can be safely returned for many requests.
+         */
+        public MockedServerResponse buildShared() {
+            final Map<String, List<String>> sharedHeaders = new HashMap<>();
+            headers.forEach((name, values) -> sharedHeaders.put(name, List.copyOf(values)));
+            return new MockedServerResponse(this, Collections.unmodifiableMap(sharedHeaders), bodyBytes.asReadOnlyBuffer());
         }
     }
 }
@@ -0,0 +1,199 @@
+package com.pgssoft.httpclient;
+
+import com.pgssoft.httpclient.internal.BodySubscription;
+import com.pgssoft.httpclient.internal.HttpResponseProxy;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.capture.CaptureWriter;
+import com.pgssoft.httpclient.internal.capture.RecordedExchange;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * HttpClient which sends requests with real client and appends every request and response to capture file. Capture
+ * can be later replayed by {@link HttpClientMock#replay(Path)}, so tests can run without the real server.
+ * <p>
+ * Capture file is append-only, so many runs can be recorded into the same file. Bodies are stored once, by content
+ * hash.
+ */
+public final class RecordingHttpClient extends HttpClient implements AutoCloseable {
+
+    private final HttpClient delegate;
+    private final CaptureWriter writer;
+
+    /**
+     * @param delegate    client sending real requests
+     * @param captureFile file to which exchanges are appended, created if it doesn't exist
+     * @throws IOException when capture file can't be opened
+     */
+    public RecordingHttpClient(HttpClient delegate, Path captureFile) throws IOException {
+        this.delegate = delegate;
+        this.writer = new CaptureWriter(captureFile);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException {
+        final byte[] requestBody = body(request);
+        final HttpResponse<byte[]> response = delegate.send(withBody(request, requestBody), HttpResponse.BodyHandlers.ofByteArray());
+        record(request, requestBody, response);
+        return replayTo(request, response, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        final byte[] requestBody = body(request);
+        return delegate.sendAsync(withBody(request, requestBody), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        record(request, requestBody, response);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                    return replayTo(request, response, responseBodyHandler);
+                });
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(request, responseBodyHandler);
+    }
+
+    /**
+     * Reads request body before request is sent, as body publisher may support only single subscription.
+     */
+    private static byte[] body(HttpRequest request) {
+        return new RequestContext(request).body()
+                .map(body -> {
+                    final byte[] bytes = new byte[body.remaining()];
+                    body.get(bytes);
+                    return bytes;
+                })
+                .orElse(new byte[0]);
+    }
+
+    /**
+     * Returns copy of request sending already read body.
+     */
+    private static HttpRequest withBody(HttpRequest request, byte[] body) {
+        if (request.bodyPublisher().isEmpty()) {
+            return request;
+        }
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+                .method(request.method(), HttpRequest.BodyPublishers.ofByteArray(body))
+                .expectContinue(request.expectContinue());
+        request.timeout().ifPresent(builder::timeout);
+        request.version().ifPresent(builder::version);
+        request.headers().map().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        return builder.build();
+    }
+
+    private void record(HttpRequest request, byte[] requestBody, HttpResponse<byte[]> response) throws IOException {
+        writer.write(new RecordedExchange(request.method(), request.uri().toString(), requestBody,
+                response.statusCode(), response.headers().map(), response.body()));
+    }
+
+    private <T> HttpResponse<T> replayTo(HttpRequest request, HttpResponse<byte[]> response,
+                                         HttpResponse.BodyHandler<T> responseBodyHandler) {
+        final HttpHeaders headers = response.headers();
+        final HttpResponse.BodySubscriber<T> subscriber = responseBodyHandler.apply(new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return response.statusCode();
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public Version version() {
+                return response.version();
+            }
+        });
+        new BodySubscription(subscriber, BodySubscription.slices(ByteBuffer.wrap(response.body()), MockedServerResponse.DEFAULT_CHUNK_SIZE)).start();
+        try {
+            final T body = subscriber.getBody().toCompletableFuture().get();
+            return new HttpResponseProxy<>(response.statusCode(), headers, body, request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading response body", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error reading response body", e.getCause());
+        }
+    }
+
+    /**
+     * Closes capture file. Real client is not closed.
+     */
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+}
@@ -0,0 +1,26 @@
+package com.pgssoft.httpclient;
+
+/**
+ * Decides which response is returned by rule with many responses, defined by chained calls like
+ * <code>doReturn("first").doReturn("second")</code>. Next response is chosen with a single atomic increment, so
+ * sequence stays correct when requests are sent concurrently.
+ */
+public enum ResponseSequencing {
+
+    /**
+     * Responses are returned in order of definition, and then the last one is returned for every next request. This
+     * is default sequencing.
+     */
+    REPEAT_LAST,
+
+    /**
+     * Responses are returned in order of definition, and after the last one sequence starts again from the first one.
+     */
+    CYCLIC,
+
+    /**
+     * Every response is returned exactly once, in order of definition. Next requests matching rule fail with
+     * {@link IllegalStateException}.
+     */
+    EXHAUSTIBLE
+}
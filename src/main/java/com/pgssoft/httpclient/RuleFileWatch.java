@@ -0,0 +1,44 @@
+package com.pgssoft.httpclient;
+
+import com.pgssoft.httpclient.internal.rulefile.RuleFileWatcher;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Watch of rule files started by {@link HttpClientMock#watchRuleFiles(java.nio.file.Path)}. Rules are reloaded
+ * whenever files in watched directory change, until watch is closed.
+ */
+public final class RuleFileWatch implements Closeable {
+
+    private final RuleFileWatcher watcher;
+
+    RuleFileWatch(RuleFileWatcher watcher) {
+        this.watcher = watcher;
+    }
+
+    /**
+     * @return number of times rules were successfully reloaded
+     */
+    public long reloads() {
+        return watcher.reloads();
+    }
+
+    /**
+     * Returns failure of the last reload. When reload fails, previously loaded rules remain in use.
+     *
+     * @return failure of the last reload, empty if it succeeded
+     */
+    public Optional<Exception> lastFailure() {
+        return Optional.ofNullable(watcher.lastFailure());
+    }
+
+    /**
+     * Stops watching files. Rules loaded so far remain in use.
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.pgssoft.httpclient.internal;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscriber which drains request body publisher once and copies all chunks into single growable array. Chunks may be
+ * heap or direct buffers, they are copied without accessing their backing arrays. When publisher declares content
+ * length, array is allocated with exact size up front.
+ */
+final class BodyCapture implements Flow.Subscriber<ByteBuffer> {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+    private byte[] content;
+    private int size;
+
+    private BodyCapture(long contentLength) {
+        this.content = new byte[contentLength > 0 && contentLength <= Integer.MAX_VALUE ? (int) contentLength : DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Reads whole body of provided publisher. Waits for publishers which deliver body asynchronously.
+     *
+     * @param publisher request body publisher
+     * @return read-only buffer with body content
+     */
+    static ByteBuffer capture(HttpRequest.BodyPublisher publisher) {
+        final BodyCapture capture = new BodyCapture(publisher.contentLength());
+        publisher.subscribe(capture);
+        try {
+            return capture.result.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Unable to read request body", e.getCause());
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        final int length = item.remaining();
+        if (content.length - size < length) {
+            content = Arrays.copyOf(content, Math.max(content.length * 2, size + length));
+        }
+        item.get(content, size, length);
+        size += length;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(ByteBuffer.wrap(content, 0, size).slice().asReadOnlyBuffer());
+    }
+}
@@ -0,0 +1,181 @@
+package com.pgssoft.httpclient.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscription which delivers response body chunks straight to body subscriber, on the thread which requested them.
+ * There is no executor hop: chunks are emitted while subscriber demand lasts, and when subscriber requests more later
+ * (for example from thread reading body stream), delivery continues on that thread. Only one thread emits at a time.
+ * <p>
+ * When bandwidth is limited, subscription pauses after every chunk for the time its transfer would take and resumes on
+ * JDK shared delay scheduler, so no thread is blocked while body is throttled.
+ * <p>
+ * Chunks are pulled from iterator only when subscriber has demand for them, so generated bodies may be infinite.
+ * Termination callback is run once, when body is completed, failed or cancelled.
+ */
+public final class BodySubscription implements Flow.Subscription {
+
+    private final Flow.Subscriber<? super List<ByteBuffer>> subscriber;
+    private final Iterator<ByteBuffer> chunks;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private final long bytesPerSecond;
+    private final Executor pacingExecutor;
+    private final Runnable onTermination;
+    private volatile boolean cancelled;
+    private volatile boolean paused;
+    private volatile IllegalArgumentException invalidRequest;
+    private boolean completed;
+    private boolean terminated;
+
+    public BodySubscription(Flow.Subscriber<? super List<ByteBuffer>> subscriber, Iterator<ByteBuffer> chunks) {
+        this(subscriber, chunks, 0, null, () -> {
+        });
+    }
+
+    /**
+     * @param bytesPerSecond  bandwidth limit, 0 for unlimited
+     * @param pacingExecutor  executor on which delivery resumes after pause, required when bandwidth is limited
+     * @param onTermination   called once when body is completed, failed or cancelled
+     */
+    public BodySubscription(Flow.Subscriber<? super List<ByteBuffer>> subscriber, Iterator<ByteBuffer> chunks,
+                            long bytesPerSecond, Executor pacingExecutor, Runnable onTermination) {
+        this.subscriber = subscriber;
+        this.chunks = chunks;
+        this.bytesPerSecond = bytesPerSecond;
+        this.pacingExecutor = pacingExecutor;
+        this.onTermination = onTermination;
+    }
+
+    /**
+     * Returns size of chunk which takes about 10 milliseconds to transfer with provided bandwidth.
+     */
+    public static int chunkSizeFor(long bytesPerSecond) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytesPerSecond / 100));
+    }
+
+    /**
+     * Splits buffer into slices of at most provided size, without copying.
+     */
+    public static Iterator<ByteBuffer> slices(ByteBuffer buffer, int size) {
+        return slices(List.of(buffer).iterator(), size);
+    }
+
+    /**
+     * Splits chunks larger than provided size into slices, without copying. Empty chunks are skipped. Chunks are
+     * pulled from source lazily, one at a time.
+     */
+    public static Iterator<ByteBuffer> slices(Iterator<ByteBuffer> chunks, int size) {
+        return new Iterator<>() {
+            private ByteBuffer current;
+
+            @Override
+            public boolean hasNext() {
+                while ((current == null || !current.hasRemaining()) && chunks.hasNext()) {
+                    current = chunks.next().duplicate();
+                }
+                return current != null && current.hasRemaining();
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int end = Math.min(current.limit(), current.position() + size);
+                final ByteBuffer slice = current.duplicate().limit(end).slice();
+                current.position(end);
+                return slice;
+            }
+        };
+    }
+
+    /**
+     * Subscribes subscriber and delivers as much of body as subscriber requests during subscription.
+     */
+    public void start() {
+        subscriber.onSubscribe(this);
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            invalidRequest = new IllegalArgumentException("non-positive subscription request: " + n);
+            drain();
+            return;
+        }
+        demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        drain();
+    }
+
+    private void drain() {
+        if (workInProgress.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            final IllegalArgumentException error = invalidRequest;
+            if (error != null && !terminated) {
+                cancelled = true;
+                subscriber.onError(error);
+            } else {
+                try {
+                    emit();
+                } catch (RuntimeException e) {
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+            }
+            if ((cancelled || completed) && !terminated) {
+                terminated = true;
+                onTermination.run();
+            }
+        } while (workInProgress.decrementAndGet() != 0);
+    }
+
+    private void pause(int size) {
+        paused = true;
+        final long nanos = (long) (size * (double) TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+        CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, pacingExecutor).execute(this::resume);
+    }
+
+    private void resume() {
+        paused = false;
+        drain();
+    }
+
+    private void emit() {
+        while (!cancelled && !completed && !paused) {
+            if (!chunks.hasNext()) {
+                completed = true;
+                subscriber.onComplete();
+                return;
+            }
+            if (demand.get() == 0) {
+                return;
+            }
+            demand.decrementAndGet();
+            final ByteBuffer chunk = chunks.next();
+            final int size = chunk.remaining();
+            subscriber.onNext(List.of(chunk.asReadOnlyBuffer()));
+            if (bytesPerSecond > 0) {
+                pause(size);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal which retains no requests, only counts them.
+ */
+final class CountingJournal implements RequestJournal {
+
+    private final LongAdder total = new LongAdder();
+
+    @Override
+    public void add(RequestContext request) {
+        total.increment();
+    }
+
+    @Override
+    public List<RequestContext> snapshot() {
+        return List.of();
+    }
+
+    @Override
+    public long total() {
+        return total.sum();
+    }
+
+    @Override
+    public long evicted() {
+        return total.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "counters only";
+    }
+}
@@ -0,0 +1,37 @@
+package com.pgssoft.httpclient.internal;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor used for asynchronous requests when no executor was provided. On JDK 21 and newer it starts a virtual
+ * thread per task, on older JDKs it uses cached pool of daemon threads.
+ */
+public final class DefaultExecutor {
+
+    private static final Executor INSTANCE = create();
+
+    private DefaultExecutor() {
+    }
+
+    public static Executor get() {
+        return INSTANCE;
+    }
+
+    private static Executor create() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                final Thread thread = new Thread(task, "HttpClientMock-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.pgssoft.httpclient.internal;
+
+import com.pgssoft.httpclient.internal.rule.Rule;
+import com.pgssoft.httpclient.internal.rule.RuleIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verification expectations registered before requests are sent. Every handled request increments counters of
+ * matching expectations, so verification does not have to scan request journal. Expectations are indexed the same way
+ * as rules, so only expectations which can possibly match request are evaluated. Registration publishes new immutable
+ * index, recording never blocks.
+ */
+public final class ExpectationRegistry {
+
+    private volatile Expectations expectations = new Expectations(new RuleIndex(List.of()), new LongAdder[0]);
+
+    /**
+     * Registers expectation. Only requests recorded after registration are counted.
+     *
+     * @param rule conditions of expectation
+     * @return counter of requests matching expectation
+     */
+    public synchronized LongAdder register(Rule rule) {
+        final List<Rule> rules = new ArrayList<>(expectations.index.getRules());
+        rules.add(rule);
+        final LongAdder[] counters = Arrays.copyOf(expectations.counters, rules.size());
+        counters[rules.size() - 1] = new LongAdder();
+        expectations = new Expectations(new RuleIndex(rules), counters);
+        return counters[rules.size() - 1];
+    }
+
+    public void record(RequestContext context) {
+        final Expectations current = expectations;
+        if (current.counters.length > 0) {
+            current.index.forEachMatch(context, ordinal -> current.counters[ordinal].increment());
+        }
+    }
+
+    private static final class Expectations {
+
+        private final RuleIndex index;
+        private final LongAdder[] counters;
+
+        Expectations(RuleIndex index, LongAdder[] counters) {
+            this.index = index;
+            this.counters = counters;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Like HdrHistogram, buckets are log-linear: every power of two
+ * range is split into {@value #SUB_BUCKETS} equal buckets, so recorded values are kept with relative error below 12.5%
+ * in constant memory. Recording is a single atomic increment.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        totalNanos.add(value);
+    }
+
+    /**
+     * @return copy of bucket counts
+     */
+    public long[] counts() {
+        final long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value which is recorded in provided bucket
+     */
+    public static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (magnitude - SUB_BUCKET_BITS);
+        return lowest + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of requests handled by mock while metrics are on. Statistics of single rules are kept by rules.
+ */
+public final class MockStats {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder unmatchedRequests = new LongAdder();
+    private final Histogram matchingTime = new Histogram();
+
+    public void recordMatching(boolean matched, long nanos) {
+        requests.increment();
+        if (!matched) {
+            unmatchedRequests.increment();
+        }
+        matchingTime.record(nanos);
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long unmatchedRequests() {
+        return unmatchedRequests.sum();
+    }
+
+    public Histogram matchingTime() {
+        return matchingTime;
+    }
+}
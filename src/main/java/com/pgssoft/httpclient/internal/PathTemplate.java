@@ -0,0 +1,115 @@
+package com.pgssoft.httpclient.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Path matcher built from template like <code>/users/{id}/orders</code>. Every segment surrounded by braces matches
+ * exactly one non empty path segment, other segments must be equal to request path segments.
+ */
+public final class PathTemplate extends TypeSafeMatcher<String> {
+
+    private final String template;
+    private final String[] segments;
+    private final String[] variables;
+
+    private PathTemplate(String template) {
+        this.template = template;
+        this.segments = split(template);
+        this.variables = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            if (isVariable(segments[i])) {
+                variables[i] = segments[i].substring(1, segments[i].length() - 1);
+            }
+        }
+    }
+
+    public static PathTemplate parse(String template) {
+        return new PathTemplate(template);
+    }
+
+    /**
+     * Checks if provided path contains at least one variable segment.
+     *
+     * @param path path to check
+     * @return true if path should be treated as a template
+     */
+    public static boolean isTemplate(String path) {
+        return path != null && Arrays.stream(split(path)).anyMatch(PathTemplate::isVariable);
+    }
+
+    /**
+     * Splits path into segments. Leading and trailing slashes produce empty segments, so "/a" and "/a/" are different.
+     *
+     * @param path path to split
+     * @return path segments
+     */
+    public static String[] split(String path) {
+        return path == null ? new String[]{""} : path.split("/", -1);
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * Returns literal segment at provided position or null if segment is a variable.
+     */
+    public String literalSegment(int i) {
+        return variables[i] == null ? segments[i] : null;
+    }
+
+    /**
+     * Extracts values of template variables from path.
+     *
+     * @param path request path
+     * @return map of variable names to values, empty if path doesn't match template
+     */
+    public Map<String, String> variables(String path) {
+        final String[] actual = split(path);
+        if (!matches(actual)) {
+            return Map.of();
+        }
+        final Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i] != null) {
+                values.put(variables[i], actual[i]);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    protected boolean matchesSafely(String path) {
+        return matches(split(path));
+    }
+
+    private boolean matches(String[] actual) {
+        if (actual.length != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (variables[i] == null ? !segments[i].equals(actual[i]) : actual[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("matches template ").appendValue(template);
+    }
+}
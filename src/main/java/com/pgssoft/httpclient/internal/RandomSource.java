@@ -0,0 +1,56 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded source of random numbers used to choose probabilistic responses and simulated latencies. Every thread draws
+ * from its own generator, split from generator seeded with mock seed, so drawing never contends between threads.
+ * Single threaded runs with the same seed choose the same responses and latencies.
+ */
+public final class RandomSource {
+
+    private final long seed;
+    private final SplittableRandom root;
+    private final ThreadLocal<SplittableRandom> generators;
+    private volatile boolean used;
+
+    public RandomSource(long seed) {
+        this.seed = seed;
+        this.root = new SplittableRandom(seed);
+        this.generators = ThreadLocal.withInitial(this::split);
+    }
+
+    private synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return random number from range [0, 1)
+     */
+    public double nextDouble() {
+        return generator().nextDouble();
+    }
+
+    /**
+     * @return generator of current thread
+     */
+    public SplittableRandom generator() {
+        if (!used) {
+            used = true;
+        }
+        return generators.get();
+    }
+
+    /**
+     * Returns note about seed to be added to failure messages, so run can be reproduced.
+     *
+     * @return note about seed, or empty string if no random number was drawn
+     */
+    public String failureNote() {
+        return used ? String.format(" Random responses and latencies were drawn with seed %d.", seed) : "";
+    }
+}
@@ -0,0 +1,185 @@
+package com.pgssoft.httpclient.internal;
+
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.internal.json.JsonDocument;
+import com.pgssoft.httpclient.internal.json.JsonPath;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Default {@link MatchContext}. Parsed parts of request are computed lazily and cached. Computation is idempotent, so
+ * when context is used from many threads at worst the same value is computed more than once. Only body is captured
+ * exactly once, as body publisher may support only single subscription.
+ */
+public final class RequestContext implements MatchContext {
+
+    private final HttpRequest request;
+    private final URI uri;
+    private final String path;
+    private volatile UrlParams urlParams;
+    private volatile Optional<ByteBuffer> body;
+    private volatile Optional<String> bodyString;
+    private volatile Optional<JsonDocument> json;
+    private final Set<JsonPath> jsonPaths;
+    private volatile Map<Object, Object> attributes = Map.of();
+
+    public RequestContext(HttpRequest request) {
+        this(request, Set.of());
+    }
+
+    /**
+     * @param jsonPaths JSON paths which rules are going to check, all of them are found with single scan of body
+     */
+    public RequestContext(HttpRequest request, Set<JsonPath> jsonPaths) {
+        this.request = request;
+        this.jsonPaths = jsonPaths;
+        this.uri = request.uri();
+        this.path = uri.getPath() == null ? "" : uri.getPath();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return request;
+    }
+
+    @Override
+    public URI uri() {
+        return uri;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    public String method() {
+        return request.method();
+    }
+
+    public String host() {
+        return uri.getHost() == null ? "" : uri.getHost();
+    }
+
+    UrlParams urlParams() {
+        UrlParams params = urlParams;
+        if (params == null) {
+            params = UrlParams.parse(uri.getRawQuery());
+            urlParams = params;
+        }
+        return params;
+    }
+
+    @Override
+    public Map<String, List<String>> queryParameters() {
+        final Map<String, List<String>> parameters = new LinkedHashMap<>();
+        for (ParameterValue param : urlParams().getParams()) {
+            parameters.put(param.getName(), Collections.unmodifiableList(param.getValues()));
+        }
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Returns decoded values of query parameter, without building map of all parameters.
+     *
+     * @param name parameter name
+     * @return values in order of occurrence, empty if there is no such parameter
+     */
+    public List<String> queryParameterValues(String name) {
+        return urlParams().values(name);
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return request.headers();
+    }
+
+    /**
+     * Returns request body. Body publisher is subscribed only once, when first condition asks for body, even when
+     * conditions are evaluated from many threads at the same time.
+     */
+    @Override
+    public Optional<ByteBuffer> body() {
+        Optional<ByteBuffer> content = body;
+        if (content == null) {
+            synchronized (this) {
+                content = body;
+                if (content == null) {
+                    content = request.bodyPublisher().map(BodyCapture::capture);
+                    body = content;
+                }
+            }
+        }
+        return content.map(ByteBuffer::duplicate);
+    }
+
+    /**
+     * Returns request body decoded as UTF-8. Body is decoded once, when first string condition asks for it.
+     *
+     * @return decoded body, empty if request has no body publisher
+     */
+    public Optional<String> bodyAsString() {
+        Optional<String> content = bodyString;
+        if (content == null) {
+            content = body().map(bytes -> StandardCharsets.UTF_8.decode(bytes).toString());
+            bodyString = content;
+        }
+        return content;
+    }
+
+    /**
+     * Returns JSON view of request body, shared by all JSON path conditions evaluated for this request.
+     *
+     * @return JSON document, empty if request has no body publisher
+     */
+    public Optional<JsonDocument> json() {
+        Optional<JsonDocument> document = json;
+        if (document == null) {
+            synchronized (this) {
+                document = json;
+                if (document == null) {
+                    document = body().map(bytes -> new JsonDocument(bytes, jsonPaths));
+                    json = document;
+                }
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Returns value computed for this request under provided key, computing it when asked for the first time. Lets
+     * condition and action of the same rule share work done for request, like finding response or hashing body.
+     *
+     * @param key     key of value, usually object computing it
+     * @param compute computes value, must not return null
+     * @return value computed for this request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T attribute(Object key, Function<? super RequestContext, ? extends T> compute) {
+        Object value = attributes.get(key);
+        if (value == null) {
+            synchronized (this) {
+                value = attributes.get(key);
+                if (value == null) {
+                    value = Objects.requireNonNull(compute.apply(this), "attribute value must be not null");
+                    final Map<Object, Object> updated = new HashMap<>(attributes);
+                    updated.put(key, value);
+                    attributes = updated;
+                }
+            }
+        }
+        return (T) value;
+    }
+}
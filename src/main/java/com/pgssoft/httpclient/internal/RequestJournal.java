@@ -0,0 +1,48 @@
+package com.pgssoft.httpclient.internal;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Journal of handled requests, used for verification. Depending on policy, journal may keep only some of requests, to
+ * limit memory used by long running tests, but it always knows how many requests were handled.
+ */
+public interface RequestJournal {
+
+    void add(RequestContext request);
+
+    /**
+     * @return unmodifiable list of retained requests in order of arrival
+     */
+    List<RequestContext> snapshot();
+
+    /**
+     * @return number of all requests added to journal
+     */
+    long total();
+
+    /**
+     * @return number of requests added to journal, which are not retained anymore
+     */
+    long evicted();
+
+    static RequestJournal unbounded() {
+        return new SegmentedJournal();
+    }
+
+    static RequestJournal lastRequests(int capacity) {
+        return new RingJournal(capacity);
+    }
+
+    static RequestJournal timeWindow(Duration window) {
+        return new TimeWindowJournal(window);
+    }
+
+    static RequestJournal sampling(double rate) {
+        return new SamplingJournal(rate);
+    }
+
+    static RequestJournal countersOnly() {
+        return new CountingJournal();
+    }
+}
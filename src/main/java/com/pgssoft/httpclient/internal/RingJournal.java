@@ -0,0 +1,73 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Journal which retains only the last requests, in a fixed size ring buffer. Writers claim slot with a single atomic
+ * increment and overwrite the oldest request.
+ */
+final class RingJournal implements RequestJournal {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<Entry> slots;
+
+    RingJournal(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void add(RequestContext request) {
+        final long index = sequence.getAndIncrement();
+        slots.set((int) (index % slots.length()), new Entry(index, request));
+    }
+
+    /**
+     * Returns retained requests. Request overwritten by concurrent writer while snapshot is taken is skipped.
+     */
+    @Override
+    public List<RequestContext> snapshot() {
+        final long end = sequence.get();
+        final long start = Math.max(0, end - slots.length());
+        final List<RequestContext> result = new ArrayList<>((int) (end - start));
+        for (long index = start; index < end; index++) {
+            final Entry entry = slots.get((int) (index % slots.length()));
+            if (entry != null && entry.index == index) {
+                result.add(entry.request);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public long total() {
+        return sequence.get();
+    }
+
+    @Override
+    public long evicted() {
+        return Math.max(0, sequence.get() - slots.length());
+    }
+
+    @Override
+    public String toString() {
+        return "last " + slots.length() + " requests";
+    }
+
+    private static final class Entry {
+
+        private final long index;
+        private final RequestContext request;
+
+        Entry(long index, RequestContext request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+}
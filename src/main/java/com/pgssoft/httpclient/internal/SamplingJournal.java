@@ -0,0 +1,50 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal which retains evenly spread fraction of requests, for example every tenth request for rate 0.1. Sampling is
+ * deterministic, so the same sequence of requests always retains the same requests.
+ */
+final class SamplingJournal implements RequestJournal {
+
+    private final SegmentedJournal sampled = new SegmentedJournal();
+    private final AtomicLong sequence = new AtomicLong();
+    private final double rate;
+
+    SamplingJournal(double rate) {
+        if (!(rate > 0 && rate <= 1)) {
+            throw new IllegalArgumentException("rate must be in range (0, 1]");
+        }
+        this.rate = rate;
+    }
+
+    @Override
+    public void add(RequestContext request) {
+        final long index = sequence.getAndIncrement();
+        if ((long) ((index + 1) * rate) > (long) (index * rate)) {
+            sampled.add(request);
+        }
+    }
+
+    @Override
+    public List<RequestContext> snapshot() {
+        return sampled.snapshot();
+    }
+
+    @Override
+    public long total() {
+        return sequence.get();
+    }
+
+    @Override
+    public long evicted() {
+        return Math.max(0, sequence.get() - sampled.total());
+    }
+
+    @Override
+    public String toString() {
+        return "sampling at rate " + rate;
+    }
+}
@@ -0,0 +1,96 @@
+package com.pgssoft.httpclient.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Unbounded, lock-free, append-only journal of requests. Entries are stored in segments which double in size, so
+ * appending never copies already stored entries. Writers reserve a slot with a single atomic increment and then publish
+ * request in that slot, readers never block writers.
+ */
+final class SegmentedJournal implements RequestJournal {
+
+    private static final int FIRST_SEGMENT_SIZE = 64;
+    private static final int MAX_SEGMENTS = 25;
+    private static final int CAPACITY = FIRST_SEGMENT_SIZE * ((1 << MAX_SEGMENTS) - 1);
+
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicReferenceArray<AtomicReferenceArray<RequestContext>> segments =
+            new AtomicReferenceArray<>(MAX_SEGMENTS);
+
+    @Override
+    public void add(RequestContext request) {
+        final int index = reserved.getAndIncrement();
+        if (index >= CAPACITY || index < 0) {
+            reserved.decrementAndGet();
+            throw new IllegalStateException("Request journal is full");
+        }
+        final int segment = segmentOf(index);
+        segment(segment).set(offsetOf(index, segment), request);
+    }
+
+    /**
+     * Returns requests published so far. Requests which slot was reserved, but which are still being published by
+     * concurrent writer are not included.
+     *
+     * @return unmodifiable list of requests in order of reservation
+     */
+    @Override
+    public List<RequestContext> snapshot() {
+        final int size = Math.min(reserved.get(), CAPACITY);
+        final List<RequestContext> result = new ArrayList<>(size);
+        for (int segment = 0, start = 0; start < size; segment++) {
+            final AtomicReferenceArray<RequestContext> entries = segments.get(segment);
+            final int length = segmentSize(segment);
+            if (entries != null) {
+                for (int i = 0; i < length && start + i < size; i++) {
+                    final RequestContext request = entries.get(i);
+                    if (request != null) {
+                        result.add(request);
+                    }
+                }
+            }
+            start += length;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public long total() {
+        return Math.min(reserved.get(), CAPACITY);
+    }
+
+    @Override
+    public long evicted() {
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "unbounded";
+    }
+
+    private AtomicReferenceArray<RequestContext> segment(int segment) {
+        final AtomicReferenceArray<RequestContext> existing = segments.get(segment);
+        if (existing != null) {
+            return existing;
+        }
+        segments.compareAndSet(segment, null, new AtomicReferenceArray<>(segmentSize(segment)));
+        return segments.get(segment);
+    }
+
+    private static int segmentOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index / FIRST_SEGMENT_SIZE + 1);
+    }
+
+    private static int offsetOf(int index, int segment) {
+        return index - FIRST_SEGMENT_SIZE * ((1 << segment) - 1);
+    }
+
+    private static int segmentSize(int segment) {
+        return FIRST_SEGMENT_SIZE << segment;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pgssoft.httpclient.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Journal which retains requests handled within recent time window. Expired requests are dropped whenever request
+ * is added or snapshot is taken.
+ */
+final class TimeWindowJournal implements RequestJournal {
+
+    private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final Duration window;
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    TimeWindowJournal(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    TimeWindowJournal(Duration window, LongSupplier clock) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.window = window;
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public void add(RequestContext request) {
+        final long now = clock.getAsLong();
+        total.increment();
+        entries.add(new Entry(now, request));
+        expire(now);
+    }
+
+    @Override
+    public List<RequestContext> snapshot() {
+        expire(clock.getAsLong());
+        final List<RequestContext> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            result.add(entry.request);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public long total() {
+        return total.sum();
+    }
+
+    @Override
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "requests from last " + window;
+    }
+
+    private void expire(long now) {
+        Entry oldest;
+        while ((oldest = entries.peek()) != null && now - oldest.time > windowNanos) {
+            if (entries.remove(oldest)) {
+                evicted.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final long time;
+        private final RequestContext request;
+
+        Entry(long time, RequestContext request) {
+            this.time = time;
+            this.request = request;
+        }
+    }
+}
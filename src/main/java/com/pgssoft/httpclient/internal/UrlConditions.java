@@ -20,16 +20,25 @@ public class UrlConditions {
     private Matcher<String> pathCondition = Matchers.anyOf(Matchers.any(String.class), Matchers.nullValue());
     private Matcher<Integer> portCondition = Matchers.any(Integer.class);
     private Matcher<String> schemaCondition = Matchers.anyOf(Matchers.any(String.class), Matchers.nullValue());
+    private String hostLiteral;
+    private String pathLiteral;
+    private PathTemplate pathTemplate;
 
     public static UrlConditions parse(String urlText) {
         try {
             UrlConditions conditions = new UrlConditions();
-            URI uri = new URI(urlText);
-            UrlParams params = UrlParams.parse(uri.getQuery());
+            URI uri = new URI(escapeTemplateBraces(urlText));
+            UrlParams params = UrlParams.parse(uri.getRawQuery());
             conditions.setSchemaCondition(getStringMatcher(uri.getScheme()));
             conditions.setHostCondition(getStringMatcher(uri.getHost()));
+            conditions.hostLiteral = nullToEmpty(uri.getHost());
             conditions.setPortCondition(equalTo(uri.getPort()));
-            conditions.setPathCondition(getStringMatcher(uri.getPath()));
+            if (urlText.indexOf('{') >= 0 && PathTemplate.isTemplate(uri.getPath())) {
+                conditions.setPathTemplate(PathTemplate.parse(uri.getPath()));
+            } else {
+                conditions.setPathCondition(getStringMatcher(uri.getPath()));
+                conditions.pathLiteral = nullToEmpty(uri.getPath());
+            }
             conditions.setReferenceCondition(getStringMatcher(uri.getFragment()));
             conditions.setParameterConditions(new UrlParamsMatcher(params));
             return conditions;
@@ -39,6 +48,27 @@ public class UrlConditions {
     }
 
 
+    /**
+     * @return copy of conditions, which is not affected by conditions changed in this object later
+     */
+    public UrlConditions copy() {
+        final UrlConditions copy = new UrlConditions();
+        copy.parameterConditions = parameterConditions.copy();
+        copy.referenceCondition = referenceCondition;
+        copy.hostCondition = hostCondition;
+        copy.pathCondition = pathCondition;
+        copy.portCondition = portCondition;
+        copy.schemaCondition = schemaCondition;
+        copy.hostLiteral = hostLiteral;
+        copy.pathLiteral = pathLiteral;
+        copy.pathTemplate = pathTemplate;
+        return copy;
+    }
+
+    private static String escapeTemplateBraces(String urlText) {
+        return urlText.replace("{", "%7B").replace("}", "%7D");
+    }
+
     private static Matcher<String> getStringMatcher(String val) {
         if (val == null || val.isEmpty()) {
             return Matchers.isEmptyOrNullString();
@@ -47,14 +77,24 @@ public class UrlConditions {
         }
     }
 
+    static String nullToEmpty(String val) {
+        return val == null ? "" : val;
+    }
+
     public boolean matches(URI uri) {
+        return matches(uri, uri.getPath()) && parameterConditions.matches(uri.getRawQuery());
+    }
+
+    public boolean matches(RequestContext context) {
+        return matches(context.uri(), context.path()) && parameterConditions.matches(context.urlParams());
+    }
+
+    private boolean matches(URI uri, String path) {
         return hostCondition.matches(uri.getHost())
-                && pathCondition.matches(uri.getPath())
+                && pathCondition.matches(path)
                 && portCondition.matches(uri.getPort())
                 && referenceCondition.matches(uri.getFragment())
-                && schemaCondition.matches(uri.getScheme())
-                && parameterConditions.matches(uri.getQuery());
-
+                && schemaCondition.matches(uri.getScheme());
     }
 
     public void debug(HttpRequest request, Debugger debugger) {
@@ -63,7 +103,7 @@ public class UrlConditions {
         debugger.message(hostCondition.matches(uri.getHost()), "host is " + describeMatcher(hostCondition));
         debugger.message(portCondition.matches(uri.getPort()), "port is " + portDebugDescription());
         debugger.message(pathCondition.matches(uri.getPath()), "path is " + describeMatcher(pathCondition));
-        debugger.message(parameterConditions.matches(uri.getQuery()), "all URI parameters have matching value");
+        debugger.message(parameterConditions.matches(uri.getRawQuery()), "all URI parameters have matching value");
         debugger.message(referenceCondition.matches(uri.getFragment()), "URI reference has matching value");
     }
 
@@ -102,6 +142,20 @@ public class UrlConditions {
 
     public void setHostCondition(Matcher<String> hostCondition) {
         this.hostCondition = hostCondition;
+        this.hostLiteral = null;
+    }
+
+    public void setHostCondition(String host) {
+        setHostCondition(Matchers.equalTo(host));
+        this.hostLiteral = host;
+    }
+
+    /**
+     * Returns host which request must have to match, or null if host condition is not a literal value.
+     * Empty string stands for request without host.
+     */
+    public String getHostLiteral() {
+        return hostLiteral;
     }
 
     public Matcher<String> getPathCondition() {
@@ -110,6 +164,33 @@ public class UrlConditions {
 
     public void setPathCondition(Matcher<String> pathCondition) {
         this.pathCondition = pathCondition;
+        this.pathLiteral = null;
+        this.pathTemplate = null;
+    }
+
+    public void setPathCondition(String path) {
+        setPathCondition(Matchers.equalTo(path));
+        this.pathLiteral = path;
+    }
+
+    /**
+     * Returns path which request must have to match, or null if path condition is not a literal value.
+     * Empty string stands for request without path.
+     */
+    public String getPathLiteral() {
+        return pathLiteral;
+    }
+
+    public void setPathTemplate(PathTemplate pathTemplate) {
+        setPathCondition(pathTemplate);
+        this.pathTemplate = pathTemplate;
+    }
+
+    /**
+     * Returns path template which request must match, or null if path condition is not a template.
+     */
+    public PathTemplate getPathTemplate() {
+        return pathTemplate;
     }
 
     public Matcher<Integer> getPortCondition() {
@@ -1,53 +1,182 @@
 package com.pgssoft.httpclient.internal;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
 
+/**
+ * Query parameters parsed in a single pass into flat array of offsets. Every parameter takes four consecutive entries:
+ * name start, name end, value start and value end (value start is -1 for parameter without value). Names and values
+ * are percent-decoded and turned into strings only when they are compared or requested.
+ */
 class UrlParams {
 
-    private final ArrayList<ParameterValue> params = new ArrayList<>();
+    private static final int[] NO_OFFSETS = new int[0];
+    private static final UrlParams EMPTY = new UrlParams("", NO_OFFSETS, 0);
+
+    private final String query;
+    private final int[] offsets;
+    private final int size;
+
+    private UrlParams(String query, int[] offsets, int size) {
+        this.query = query;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Parses raw (not decoded) query string.
+     *
+     * @param query raw query, may be null
+     * @return parsed parameters
+     */
+    static UrlParams parse(String query) {
+        if (query == null || query.isEmpty()) {
+            return EMPTY;
+        }
+        int[] offsets = new int[16];
+        int size = 0;
+        int start = 0;
+        final int length = query.length();
+        while (start <= length) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                if (size * 4 == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                final int eq = query.indexOf('=', start);
+                final boolean hasValue = eq > start && eq < end - 1;
+                final int base = size * 4;
+                offsets[base] = start;
+                offsets[base + 1] = eq > start && eq < end ? eq : end;
+                offsets[base + 2] = hasValue ? eq + 1 : -1;
+                offsets[base + 3] = hasValue ? end : -1;
+                size++;
+            }
+            start = end + 1;
+        }
+        return new UrlParams(query, offsets, size);
+    }
+
+    int size() {
+        return size;
+    }
 
     boolean contains(String name) {
-        return params.stream().anyMatch(p -> p.getName().equals(name));
+        for (int i = 0; i < size; i++) {
+            if (nameEquals(i, name)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public List<ParameterValue> getParams() {
-        return params;
+    /**
+     * Checks if name of parameter at provided position is equal to provided decoded name, without creating substrings
+     * when parameter name contains no escaped characters.
+     */
+    boolean nameEquals(int i, String name) {
+        final int start = offsets[i * 4];
+        final int end = offsets[i * 4 + 1];
+        if (!containsEscape(query, start, end)) {
+            return end - start == name.length() && query.regionMatches(start, name, 0, name.length());
+        }
+        return decode(query, start, end).equals(name);
     }
 
+    String name(int i) {
+        return decode(query, offsets[i * 4], offsets[i * 4 + 1]);
+    }
 
-    static UrlParams parse(String query) {
-        if (query == null) {
-            return new UrlParams();
-        } else {
-            UrlParams urlParams = new UrlParams();
-            splitQuery(query).forEach((k, v) -> urlParams.params.add(new ParameterValue(k, v)));
-            return urlParams;
+    String value(int i) {
+        final int start = offsets[i * 4 + 2];
+        return start < 0 ? null : decode(query, start, offsets[i * 4 + 3]);
+    }
+
+    /**
+     * Returns decoded values of all parameters with provided name.
+     *
+     * @param name parameter name
+     * @return values in order of occurrence, empty if there is no such parameter
+     */
+    List<String> values(String name) {
+        List<String> values = Collections.emptyList();
+        for (int i = 0; i < size; i++) {
+            if (nameEquals(i, name)) {
+                if (values.isEmpty()) {
+                    values = new ArrayList<>(2);
+                }
+                values.add(value(i));
+            }
         }
+        return values;
     }
 
+    public List<ParameterValue> getParams() {
+        final Map<String, List<String>> grouped = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            grouped.computeIfAbsent(name(i), k -> new ArrayList<>()).add(value(i));
+        }
+        final List<ParameterValue> params = new ArrayList<>(grouped.size());
+        grouped.forEach((name, values) -> params.add(new ParameterValue(name, values)));
+        return params;
+    }
 
-    private static Map<String, List<String>> splitQuery(String query) {
-        if (query == null || query.length() <= 0) {
-            return Collections.emptyMap();
+    public Set<String> getNames() {
+        final Set<String> names = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            names.add(name(i));
         }
+        return names;
+    }
 
-        return Arrays.stream(query.split("&"))
-                .map(UrlParams::splitQueryParameter)
-                .collect(Collectors.groupingBy(AbstractMap.SimpleImmutableEntry::getKey, LinkedHashMap::new, mapping(Map.Entry::getValue, toList())));
+    /**
+     * Decodes percent-encoded UTF-8 characters. Invalid escape sequences are left as they are, '+' is not treated as
+     * space.
+     */
+    static String decode(String text, int start, int end) {
+        if (!containsEscape(text, start, end)) {
+            return text.substring(start, end);
+        }
+        final StringBuilder result = new StringBuilder(end - start);
+        final byte[] pending = new byte[end - start];
+        int pendingLength = 0;
+        for (int i = start; i < end; i++) {
+            final int hex = text.charAt(i) == '%' ? hexValue(text, i + 1, end) : -1;
+            if (hex >= 0) {
+                pending[pendingLength++] = (byte) hex;
+                i += 2;
+            } else {
+                if (pendingLength > 0) {
+                    result.append(new String(pending, 0, pendingLength, StandardCharsets.UTF_8));
+                    pendingLength = 0;
+                }
+                result.append(text.charAt(i));
+            }
+        }
+        if (pendingLength > 0) {
+            result.append(new String(pending, 0, pendingLength, StandardCharsets.UTF_8));
+        }
+        return result.toString();
     }
 
-    private static AbstractMap.SimpleImmutableEntry<String, String> splitQueryParameter(String it) {
-        final int idx = it.indexOf("=");
-        final String key = idx > 0 ? it.substring(0, idx) : it;
-        final String value = idx > 0 && it.length() > idx + 1 ? it.substring(idx + 1) : null;
-        return new AbstractMap.SimpleImmutableEntry<>(key, value);
+    private static boolean containsEscape(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '%') {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public Set<String> getNames() {
-        return params.stream().map(ParameterValue::getName).collect(Collectors.toSet());
+    private static int hexValue(String text, int i, int end) {
+        if (i + 1 >= end) {
+            return -1;
+        }
+        final int high = Character.digit(text.charAt(i), 16);
+        final int low = Character.digit(text.charAt(i + 1), 16);
+        return high < 0 || low < 0 ? -1 : high * 16 + low;
     }
 }
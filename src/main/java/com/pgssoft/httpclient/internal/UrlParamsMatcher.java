@@ -4,8 +4,8 @@ import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class UrlParamsMatcher {
 
@@ -23,28 +23,59 @@ public class UrlParamsMatcher {
     }
 
 
-    private boolean setsOfParametersAreEqual(String query) {
-        Set<String> expectedParams = matchers.keySet();
-        Set<String> actualParams = UrlParams.parse(query).getNames();
-        return expectedParams.equals(actualParams);
+    private boolean allParamsAreExpected(UrlParams params) {
+        for (int i = 0; i < params.size(); i++) {
+            if (!isExpected(params, i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private boolean allParamsHaveMatchingValue(String query) {
-        UrlParams params = UrlParams.parse(query);
-        return params.getParams().stream()
-                .allMatch(param -> matchers.get(param.getName()).matches(param.getValues()));
+    private boolean isExpected(UrlParams params, int i) {
+        for (String name : matchers.keySet()) {
+            if (params.nameEquals(i, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean allExpectedParamsHaveMatchingValue(UrlParams params) {
+        for (Map.Entry<String, Matcher<Iterable<? extends String>>> expected : matchers.entrySet()) {
+            final List<String> values = params.values(expected.getKey());
+            if (values.isEmpty() || !expected.getValue().matches(values)) {
+                return false;
+            }
+        }
+        return true;
     }
 
 
     public boolean matches(String query) {
+        return noMatchersWereDefined() || matches(UrlParams.parse(query));
+    }
+
+    boolean matches(UrlParams params) {
         return noMatchersWereDefined() ||
-                (setsOfParametersAreEqual(query) && allParamsHaveMatchingValue(query));
+                (allParamsAreExpected(params) && allExpectedParamsHaveMatchingValue(params));
     }
 
     private boolean noMatchersWereDefined() {
         return matchers == null;
     }
 
+    /**
+     * @return copy of matcher, which is not affected by parameters added to this matcher later
+     */
+    public UrlParamsMatcher copy() {
+        final UrlParamsMatcher copy = new UrlParamsMatcher();
+        if (matchers != null) {
+            copy.matchers = new HashMap<>(matchers);
+        }
+        return copy;
+    }
+
     public void addParam(String name, Matcher<Iterable<? extends String>> matcher) {
         if (noMatchersWereDefined()) {
             matchers = new HashMap<>();
@@ -1,8 +1,83 @@
 package com.pgssoft.httpclient.internal.action;
 
 import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.MockedServerResponse;
 
+import java.io.IOException;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
 
 public final class ActionBundle extends LinkedList<Action> {
+
+    private volatile MockedServerResponse template;
+
+    /**
+     * Executes bundle once when all its actions are static, and keeps result as immutable template returned for
+     * every response. Bundle with any dynamic action is executed for every response.
+     */
+    public void compile() {
+        template = null;
+        for (Action action : this) {
+            if (!(action instanceof StaticAction) || !((StaticAction) action).isStatic()) {
+                return;
+            }
+        }
+        final var responseBuilder = new MockedServerResponse.Builder();
+        try {
+            enrich(responseBuilder);
+        } catch (IOException | RuntimeException e) {
+            return;
+        }
+        template = responseBuilder.buildShared();
+    }
+
+    /**
+     * @return response compiled from static actions, or null if bundle has dynamic actions or was not compiled
+     */
+    public MockedServerResponse template() {
+        return template;
+    }
+
+    public MockedServerResponse produceResponse() throws IOException {
+        return produceResponse(null, Map::of);
+    }
+
+    /**
+     * @param request       handled request, available to actions
+     * @param pathVariables values of path template variables of matched rule
+     */
+    public MockedServerResponse produceResponse(MatchContext request, Supplier<Map<String, String>> pathVariables) throws IOException {
+        return produceResponse(request, pathVariables, SplittableRandom::new);
+    }
+
+    /**
+     * @param request       handled request, available to actions
+     * @param pathVariables values of path template variables of matched rule
+     * @param random        random generator of current thread, seeded with mock seed
+     */
+    public MockedServerResponse produceResponse(MatchContext request, Supplier<Map<String, String>> pathVariables,
+                                                Supplier<SplittableRandom> random) throws IOException {
+        final MockedServerResponse compiled = template;
+        if (compiled != null) {
+            return compiled;
+        }
+        final var responseBuilder = new MockedServerResponse.Builder(request, pathVariables, random);
+        enrich(responseBuilder);
+        return responseBuilder.build();
+    }
+
+    private void enrich(MockedServerResponse.Builder responseBuilder) throws IOException {
+        for (Action action : this) {
+            action.enrichResponse(responseBuilder);
+        }
+    }
+
+    @Override
+    public boolean add(Action action) {
+        template = null;
+        return super.add(action);
+    }
 }
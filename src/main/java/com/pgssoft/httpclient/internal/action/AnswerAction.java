@@ -0,0 +1,30 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.MockedServerResponse;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.Charset;
+import java.util.function.Function;
+
+/**
+ * Sets body computed from handled request.
+ */
+public final class AnswerAction implements Action {
+
+    private final Function<? super HttpRequest, String> answer;
+    private final Charset charset;
+
+    public AnswerAction(Function<? super HttpRequest, String> answer, Charset charset) {
+        this.answer = answer;
+        this.charset = charset;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        final HttpRequest request = responseBuilder.request()
+                .orElseThrow(() -> new IllegalStateException("Answer can be produced only for handled request"))
+                .request();
+        responseBuilder.setBodyBytes(charset.encode(answer.apply(request)));
+    }
+}
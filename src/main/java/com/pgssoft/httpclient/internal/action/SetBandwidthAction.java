@@ -0,0 +1,17 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+
+public final class SetBandwidthAction implements StaticAction {
+
+    private final long bytesPerSecond;
+
+    public SetBandwidthAction(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        responseBuilder.setBandwidth(bytesPerSecond);
+    }
+}
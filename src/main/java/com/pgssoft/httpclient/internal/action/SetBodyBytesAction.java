@@ -0,0 +1,19 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+
+import java.nio.ByteBuffer;
+
+public final class SetBodyBytesAction implements StaticAction {
+
+    private final ByteBuffer content;
+
+    public SetBodyBytesAction(ByteBuffer content) {
+        this.content = content.asReadOnlyBuffer();
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        responseBuilder.setBodyBytes(content.duplicate());
+    }
+}
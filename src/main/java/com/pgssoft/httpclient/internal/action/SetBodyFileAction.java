@@ -0,0 +1,50 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.MockedServerResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sets body to content of file. File is memory-mapped when response is produced for the first time, so its content
+ * is never copied to heap, and the same mapping is used by all responses. Action is not static, so file is not touched
+ * when rule is compiled, and missing file fails only requests matching the rule.
+ */
+public final class SetBodyFileAction implements Action {
+
+    private final Path file;
+    private volatile ByteBuffer content;
+
+    public SetBodyFileAction(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) throws IOException {
+        responseBuilder.setBodyBytes(map().duplicate());
+    }
+
+    private ByteBuffer map() throws IOException {
+        ByteBuffer mapped = content;
+        if (mapped == null) {
+            synchronized (this) {
+                mapped = content;
+                if (mapped == null) {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        final long size = channel.size();
+                        if (size > Integer.MAX_VALUE) {
+                            throw new IOException("File " + file + " is too large to be mapped: " + size + " bytes");
+                        }
+                        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+                    }
+                    content = mapped;
+                }
+            }
+        }
+        return mapped;
+    }
+}
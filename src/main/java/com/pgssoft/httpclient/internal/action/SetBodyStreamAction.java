@@ -0,0 +1,21 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public final class SetBodyStreamAction implements StaticAction {
+
+    private final Supplier<? extends Stream<ByteBuffer>> chunks;
+
+    public SetBodyStreamAction(Supplier<? extends Stream<ByteBuffer>> chunks) {
+        this.chunks = chunks;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        responseBuilder.setBodyStream(chunks);
+    }
+}
@@ -1,22 +1,20 @@
 package com.pgssoft.httpclient.internal.action;
 
-import com.pgssoft.httpclient.Action;
 import com.pgssoft.httpclient.MockedServerResponse;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
-public final class SetBodyStringAction implements Action {
+public final class SetBodyStringAction implements StaticAction {
 
-    private final String content;
-    private final Charset charset;
+    private final ByteBuffer encoded;
 
     public SetBodyStringAction(String content, Charset charset) {
-        this.content = content;
-        this.charset = charset;
+        this.encoded = charset.encode(content).asReadOnlyBuffer();
     }
 
     @Override
     public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
-        responseBuilder.setBodyBytes(charset.encode(content));
+        responseBuilder.setBodyBytes(encoded.duplicate());
     }
 }
@@ -0,0 +1,84 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.internal.RequestContext;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets body rendered from template with placeholders <code>${name}</code>, replaced by value of path template variable,
+ * and <code>${query.name}</code>, replaced by first value of query parameter. Placeholders without value are replaced
+ * by empty string. Template is parsed once, when action is created.
+ */
+public final class SetBodyTemplateAction implements Action {
+
+    private static final String QUERY_PREFIX = "query.";
+
+    private final String[] literals;
+    private final String[] placeholders;
+    private final boolean[] query;
+    private final int literalLength;
+    private final Charset charset;
+
+    public SetBodyTemplateAction(String template, Charset charset) {
+        this.charset = charset;
+        final List<String> literalParts = new ArrayList<>();
+        final List<String> placeholderParts = new ArrayList<>();
+        int start = 0;
+        int length = 0;
+        while (true) {
+            final int open = template.indexOf("${", start);
+            final int close = open < 0 ? -1 : template.indexOf('}', open + 2);
+            if (close < 0) {
+                break;
+            }
+            literalParts.add(template.substring(start, open));
+            placeholderParts.add(template.substring(open + 2, close));
+            length += open - start;
+            start = close + 1;
+        }
+        literalParts.add(template.substring(start));
+        length += template.length() - start;
+
+        this.literals = literalParts.toArray(new String[0]);
+        this.placeholders = new String[placeholderParts.size()];
+        this.query = new boolean[placeholderParts.size()];
+        for (int i = 0; i < placeholders.length; i++) {
+            final String name = placeholderParts.get(i);
+            query[i] = name.startsWith(QUERY_PREFIX);
+            placeholders[i] = query[i] ? name.substring(QUERY_PREFIX.length()) : name;
+        }
+        this.literalLength = length;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        final MatchContext request = responseBuilder.request().orElse(null);
+        final Map<String, String> pathVariables = placeholders.length == 0 ? Map.of() : responseBuilder.pathVariables();
+        final StringBuilder body = new StringBuilder(literalLength + placeholders.length * 16);
+        for (int i = 0; i < placeholders.length; i++) {
+            body.append(literals[i]);
+            final String value = query[i] ? queryParameter(request, placeholders[i]) : pathVariables.get(placeholders[i]);
+            if (value != null) {
+                body.append(value);
+            }
+        }
+        body.append(literals[placeholders.length]);
+        responseBuilder.setBodyBytes(charset.encode(body.toString()));
+    }
+
+    private static String queryParameter(MatchContext request, String name) {
+        if (request == null) {
+            return null;
+        }
+        final List<String> values = request instanceof RequestContext
+                ? ((RequestContext) request).queryParameterValues(name)
+                : request.queryParameters().getOrDefault(name, List.of());
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,17 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+
+public final class SetChunkSizeAction implements StaticAction {
+
+    private final int chunkSize;
+
+    public SetChunkSizeAction(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        responseBuilder.setChunkSize(chunkSize);
+    }
+}
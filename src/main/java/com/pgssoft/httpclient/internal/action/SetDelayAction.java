@@ -0,0 +1,32 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.LatencyDistribution;
+import com.pgssoft.httpclient.MockedServerResponse;
+
+import java.time.Duration;
+
+public final class SetDelayAction implements StaticAction {
+
+    private final LatencyDistribution distribution;
+    private final boolean fixed;
+
+    public SetDelayAction(Duration delay) {
+        this.distribution = LatencyDistribution.fixed(delay);
+        this.fixed = true;
+    }
+
+    public SetDelayAction(LatencyDistribution distribution) {
+        this.distribution = distribution;
+        this.fixed = false;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return fixed;
+    }
+
+    @Override
+    public void enrichResponse(MockedServerResponse.Builder responseBuilder) {
+        responseBuilder.setDelay(distribution.next(responseBuilder.random()));
+    }
+}
@@ -1,10 +1,9 @@
 package com.pgssoft.httpclient.internal.action;
 
-import com.pgssoft.httpclient.Action;
 import com.pgssoft.httpclient.MockedServerResponse;
 
 
-public final class SetHeaderAction implements Action {
+public final class SetHeaderAction implements StaticAction {
 
     private final String key, value;
 
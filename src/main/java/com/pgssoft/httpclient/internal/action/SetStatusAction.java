@@ -1,9 +1,8 @@
 package com.pgssoft.httpclient.internal.action;
 
-import com.pgssoft.httpclient.Action;
 import com.pgssoft.httpclient.MockedServerResponse;
 
-public final class SetStatusAction implements Action {
+public final class SetStatusAction implements StaticAction {
 
     private final int status;
 
@@ -0,0 +1,17 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.Action;
+
+/**
+ * Action which always sets the same values, no matter which request is handled and when. Bundle made only of such
+ * actions is executed once, and its result is reused for every response.
+ */
+public interface StaticAction extends Action {
+
+    /**
+     * @return true if this action instance always produces the same result
+     */
+    default boolean isStatic() {
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.pgssoft.httpclient.internal.capture;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Layout of capture file. File starts with magic number and version, followed by records. Body record holds content
+ * hash, length and bytes of body, and is written only once for every distinct body. Exchange record holds method,
+ * URI, request body hash, status, headers and response body hash. Strings are stored as UTF-8 bytes preceded by their
+ * length. Records are only appended, so file stays valid when recording is interrupted, except for the last record,
+ * which is dropped when file is read.
+ */
+final class CaptureFormat {
+
+    static final int MAGIC = 0x48434D43;
+    static final short VERSION = 2;
+    static final byte BODY = 1;
+    static final byte EXCHANGE = 2;
+    static final int HASH_LENGTH = 32;
+
+    private CaptureFormat() {
+    }
+
+    static void writeString(String value, DataOutputStream output) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static Hash hash(byte[] content) {
+        try {
+            return new Hash(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Content hash usable as map key.
+     */
+    static final class Hash {
+
+        private final byte[] bytes;
+
+        Hash(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Hash && Arrays.equals(bytes, ((Hash) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bytes);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.pgssoft.httpclient.internal.capture;
+
+import com.pgssoft.httpclient.internal.capture.CaptureFormat.Hash;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads capture file written by {@link CaptureWriter}. Equal bodies are read into single shared array.
+ */
+public final class CaptureReader {
+
+    private final Map<Hash, byte[]> bodies = new HashMap<>();
+    private final List<RecordedExchange> exchanges = new ArrayList<>();
+    private long validLength;
+
+    private CaptureReader() {
+    }
+
+    /**
+     * Reads all complete records of capture file.
+     *
+     * @param file capture file
+     * @return recorded exchanges in order of recording
+     * @throws IOException when file can't be read or is not a capture file
+     */
+    public static List<RecordedExchange> read(Path file) throws IOException {
+        final CaptureReader reader = new CaptureReader();
+        reader.readFile(file);
+        return Collections.unmodifiableList(reader.exchanges);
+    }
+
+    /**
+     * Reads capture file to find bodies already stored in it and length of its complete records.
+     */
+    static CaptureReader scan(Path file) throws IOException {
+        final CaptureReader reader = new CaptureReader();
+        reader.readFile(file);
+        return reader;
+    }
+
+    Map<Hash, byte[]> bodies() {
+        return bodies;
+    }
+
+    long validLength() {
+        return validLength;
+    }
+
+    private void readFile(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            final CountingInput counting = new CountingInput(new BufferedInputStream(stream));
+            final DataInputStream input = new DataInputStream(counting);
+            if (input.readInt() != CaptureFormat.MAGIC) {
+                throw new IOException("Not a capture file: " + file);
+            }
+            final short version = input.readShort();
+            if (version != CaptureFormat.VERSION) {
+                throw new IOException("Unsupported capture file version " + version + ": " + file);
+            }
+            validLength = counting.count;
+            try {
+                while (true) {
+                    final int tag = input.read();
+                    if (tag < 0) {
+                        return;
+                    }
+                    readRecord(tag, input, file);
+                    validLength = counting.count;
+                }
+            } catch (EOFException e) {
+                // last record was not completely written, it's ignored
+            }
+        }
+    }
+
+    private void readRecord(int tag, DataInputStream input, Path file) throws IOException {
+        if (tag == CaptureFormat.BODY) {
+            final Hash hash = readHash(input);
+            final byte[] body = new byte[input.readInt()];
+            input.readFully(body);
+            bodies.put(hash, body);
+        } else if (tag == CaptureFormat.EXCHANGE) {
+            final String method = CaptureFormat.readString(input);
+            final String uri = CaptureFormat.readString(input);
+            final byte[] requestBody = body(readHash(input), file);
+            final int statusCode = input.readInt();
+            final int headerCount = input.readInt();
+            final Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                final String name = CaptureFormat.readString(input);
+                final int valueCount = input.readInt();
+                final List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(CaptureFormat.readString(input));
+                }
+                headers.put(name, List.copyOf(values));
+            }
+            final byte[] responseBody = body(readHash(input), file);
+            exchanges.add(new RecordedExchange(method, uri, requestBody, statusCode, Collections.unmodifiableMap(headers), responseBody));
+        } else {
+            throw new IOException("Corrupted capture file, unknown record " + tag + ": " + file);
+        }
+    }
+
+    private Hash readHash(DataInputStream input) throws IOException {
+        final byte[] hash = new byte[CaptureFormat.HASH_LENGTH];
+        input.readFully(hash);
+        return new Hash(hash);
+    }
+
+    private byte[] body(Hash hash, Path file) throws IOException {
+        final byte[] body = bodies.get(hash);
+        if (body == null) {
+            throw new IOException("Corrupted capture file, exchange refers to missing body: " + file);
+        }
+        return body;
+    }
+
+    private static final class CountingInput extends FilterInputStream {
+
+        private long count;
+
+        CountingInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int result = super.read();
+            if (result >= 0) {
+                count++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int result = super.read(b, off, len);
+            if (result > 0) {
+                count += result;
+            }
+            return result;
+        }
+    }
+}
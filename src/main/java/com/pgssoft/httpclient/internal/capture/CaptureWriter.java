@@ -0,0 +1,94 @@
+package com.pgssoft.httpclient.internal.capture;
+
+import com.pgssoft.httpclient.internal.capture.CaptureFormat.Hash;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Appends exchanges to capture file. Every distinct body is stored once, exchanges refer to bodies by content hash.
+ * When file already exists, new exchanges are appended after its complete records.
+ */
+public final class CaptureWriter implements Closeable {
+
+    private final Set<Hash> writtenBodies = new HashSet<>();
+    private final DataOutputStream output;
+
+    public CaptureWriter(Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() > 0) {
+                final CaptureReader existing = CaptureReader.scan(file);
+                writtenBodies.addAll(existing.bodies().keySet());
+                channel.truncate(existing.validLength());
+                channel.position(existing.validLength());
+                output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            } else {
+                output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                output.writeInt(CaptureFormat.MAGIC);
+                output.writeShort(CaptureFormat.VERSION);
+                output.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends exchange and flushes it to file. Exchange and its new bodies are encoded in memory first, so exchange
+     * which can't be encoded leaves no partial record in file.
+     */
+    public synchronized void write(RecordedExchange exchange) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DataOutputStream record = new DataOutputStream(buffer);
+        final Set<Hash> newBodies = new HashSet<>();
+        final Hash requestBody = writeBody(exchange.requestBody(), record, newBodies);
+        final Hash responseBody = writeBody(exchange.responseBody(), record, newBodies);
+        record.writeByte(CaptureFormat.EXCHANGE);
+        CaptureFormat.writeString(exchange.method(), record);
+        CaptureFormat.writeString(exchange.uri(), record);
+        record.write(requestBody.bytes());
+        record.writeInt(exchange.statusCode());
+        record.writeInt(exchange.headers().size());
+        for (Map.Entry<String, List<String>> header : exchange.headers().entrySet()) {
+            CaptureFormat.writeString(header.getKey(), record);
+            record.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                CaptureFormat.writeString(value, record);
+            }
+        }
+        record.write(responseBody.bytes());
+
+        buffer.writeTo(output);
+        output.flush();
+        writtenBodies.addAll(newBodies);
+    }
+
+    private Hash writeBody(byte[] body, DataOutputStream record, Set<Hash> newBodies) throws IOException {
+        final Hash hash = CaptureFormat.hash(body);
+        if (!writtenBodies.contains(hash) && newBodies.add(hash)) {
+            record.writeByte(CaptureFormat.BODY);
+            record.write(hash.bytes());
+            record.writeInt(body.length);
+            record.write(body);
+        }
+        return hash;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+}
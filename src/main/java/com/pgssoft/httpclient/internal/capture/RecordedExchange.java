@@ -0,0 +1,54 @@
+package com.pgssoft.httpclient.internal.capture;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request and response pair stored in capture file.
+ */
+public final class RecordedExchange {
+
+    private final String method;
+    private final String uri;
+    private final byte[] requestBody;
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] responseBody;
+
+    /**
+     * @param requestBody request body, empty array if request had no body
+     */
+    public RecordedExchange(String method, String uri, byte[] requestBody, int statusCode, Map<String, List<String>> headers,
+                            byte[] responseBody) {
+        this.method = method;
+        this.uri = uri;
+        this.requestBody = requestBody;
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.responseBody = responseBody;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    public byte[] requestBody() {
+        return requestBody;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    public byte[] responseBody() {
+        return responseBody;
+    }
+}
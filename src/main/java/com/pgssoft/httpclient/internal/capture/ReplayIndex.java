@@ -0,0 +1,136 @@
+package com.pgssoft.httpclient.internal.capture;
+
+import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.capture.CaptureFormat.Hash;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash index of recorded exchanges of single HTTP method, keyed by URI and request body hash, used as condition and
+ * action of single replay rule. Lookup takes constant time regardless of number of recorded exchanges. Exchanges
+ * recorded many times for the same request are replayed in order, and the last one is repeated.
+ */
+public final class ReplayIndex implements Condition {
+
+    private final Map<Key, Responses> responses = new HashMap<>();
+    private final boolean keyedByBody;
+
+    public ReplayIndex(List<RecordedExchange> exchanges) {
+        boolean withBodies = false;
+        for (RecordedExchange exchange : exchanges) {
+            final Hash bodyHash = exchange.requestBody().length == 0 ? null : CaptureFormat.hash(exchange.requestBody());
+            withBodies |= bodyHash != null;
+            responses.computeIfAbsent(new Key(exchange.uri(), bodyHash), k -> new Responses()).add(exchange);
+        }
+        this.keyedByBody = withBodies;
+    }
+
+    @Override
+    public boolean matches(HttpRequest request) {
+        return matches(new RequestContext(request));
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        return responses.containsKey(keyOf(context));
+    }
+
+    @Override
+    public String getDebugMessage() {
+        return "request was recorded in capture file";
+    }
+
+    /**
+     * @return action setting recorded response of handled request
+     */
+    public Action action() {
+        return responseBuilder -> {
+            final MatchContext context = responseBuilder.request()
+                    .orElseThrow(() -> new IllegalStateException("Recorded response can be replayed only for handled request"));
+            final Responses recorded = responses.get(keyOf(context));
+            if (recorded == null) {
+                throw new IllegalStateException("No recorded response for request: " + context.uri());
+            }
+            final RecordedExchange exchange = recorded.next();
+            responseBuilder.setStatusCode(exchange.statusCode());
+            exchange.headers().forEach((name, values) -> values.forEach(value -> responseBuilder.addHeader(name, value)));
+            responseBuilder.setBodyBytes(ByteBuffer.wrap(exchange.responseBody()).asReadOnlyBuffer());
+        };
+    }
+
+    /**
+     * Computes key of request once per request, so condition and action don't both hash request body.
+     */
+    private Key keyOf(MatchContext context) {
+        if (context instanceof RequestContext) {
+            return ((RequestContext) context).attribute(this, this::computeKey);
+        }
+        return computeKey(context);
+    }
+
+    private Key computeKey(MatchContext context) {
+        Hash bodyHash = null;
+        if (keyedByBody) {
+            final ByteBuffer body = context.body().orElse(null);
+            if (body != null && body.hasRemaining()) {
+                final byte[] bytes = new byte[body.remaining()];
+                body.duplicate().get(bytes);
+                bodyHash = CaptureFormat.hash(bytes);
+            }
+        }
+        return new Key(context.uri().toString(), bodyHash);
+    }
+
+    private static final class Key {
+
+        private final String uri;
+        private final Hash bodyHash;
+
+        Key(String uri, Hash bodyHash) {
+            this.uri = uri;
+            this.bodyHash = bodyHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return uri.equals(other.uri) && Objects.equals(bodyHash, other.bodyHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return uri.hashCode() * 31 + Objects.hashCode(bodyHash);
+        }
+    }
+
+    private static final class Responses {
+
+        private final List<RecordedExchange> exchanges = new ArrayList<>();
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        void add(RecordedExchange exchange) {
+            exchanges.add(exchange);
+        }
+
+        RecordedExchange next() {
+            final int last = exchanges.size() - 1;
+            if (cursor.get() >= last) {
+                return exchanges.get(last);
+            }
+            return exchanges.get(Math.min(cursor.getAndIncrement(), last));
+        }
+    }
+}
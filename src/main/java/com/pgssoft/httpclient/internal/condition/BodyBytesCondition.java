@@ -0,0 +1,39 @@
+package com.pgssoft.httpclient.internal.condition;
+
+import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.internal.RequestContext;
+import org.hamcrest.Matcher;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Matches raw request body bytes, without decoding them to string.
+ */
+public final class BodyBytesCondition implements Condition {
+
+    private final Matcher<? super ByteBuffer> matcher;
+
+    public BodyBytesCondition(Matcher<? super ByteBuffer> matcher) {
+        this.matcher = matcher;
+    }
+
+    @Override
+    public boolean matches(HttpRequest request) {
+        return matches(new RequestContext(request));
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        final Optional<ByteBuffer> body = context.body();
+        return matcher.matches(body.orElse(null));
+    }
+
+    @Override
+    public String getDebugMessage() {
+        return "body bytes match";
+    }
+
+}
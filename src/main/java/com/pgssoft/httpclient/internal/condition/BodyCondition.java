@@ -1,10 +1,12 @@
 package com.pgssoft.httpclient.internal.condition;
 
 import com.pgssoft.httpclient.Condition;
-import com.pgssoft.httpclient.internal.PeekSubscriber;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.internal.RequestContext;
 import org.hamcrest.Matcher;
 
 import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
@@ -18,15 +20,22 @@ public final class BodyCondition implements Condition {
 
     @Override
     public boolean matches(HttpRequest request) {
-        final Optional<HttpRequest.BodyPublisher> bodyPublisher = request.bodyPublisher();
-        if (bodyPublisher.isEmpty()) {
+        return matches(new RequestContext(request));
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        final Optional<ByteBuffer> body = context.body();
+        if (body.isEmpty()) {
             return matcher.matches(null);
         }
-
-        final var subscriber = new PeekSubscriber();
-        request.bodyPublisher().orElseThrow().subscribe(subscriber);
-        final var content = subscriber.content();
-        return content != null && matcher.matches(new String(content.array(), StandardCharsets.UTF_8));
+        if (!body.get().hasRemaining()) {
+            return false;
+        }
+        if (context instanceof RequestContext) {
+            return matcher.matches(((RequestContext) context).bodyAsString().orElse(null));
+        }
+        return matcher.matches(StandardCharsets.UTF_8.decode(body.get()).toString());
     }
 
     @Override
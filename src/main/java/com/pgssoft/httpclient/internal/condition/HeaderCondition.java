@@ -1,9 +1,11 @@
 package com.pgssoft.httpclient.internal.condition;
 
 import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.MatchContext;
 import org.hamcrest.Matcher;
 import org.hamcrest.StringDescription;
 
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.util.Objects;
 
@@ -19,7 +21,16 @@ public final class HeaderCondition implements Condition {
 
     @Override
     public boolean matches(HttpRequest request) {
-        return request.headers().allValues(header)
+        return matches(request.headers());
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        return matches(context.headers());
+    }
+
+    private boolean matches(HttpHeaders headers) {
+        return headers.allValues(header)
                 .stream()
                 .filter(Objects::nonNull)
                 .anyMatch(expectedValue::matches);
@@ -0,0 +1,50 @@
+package com.pgssoft.httpclient.internal.condition;
+
+import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.json.JsonDocument;
+import com.pgssoft.httpclient.internal.json.JsonPath;
+import org.hamcrest.Matcher;
+
+import java.net.http.HttpRequest;
+import java.util.Set;
+
+/**
+ * Matches value found at JSON path of request body. Request which has no body, has body which is not valid JSON, or
+ * has no value at the path doesn't match.
+ */
+public final class JsonPathCondition implements Condition {
+
+    private final JsonPath path;
+    private final Matcher<?> matcher;
+
+    public JsonPathCondition(String path, Matcher<?> matcher) {
+        this.path = JsonPath.parse(path);
+        this.matcher = matcher;
+    }
+
+    public JsonPath getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean matches(HttpRequest request) {
+        return matches(new RequestContext(request));
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        final RequestContext requestContext = context instanceof RequestContext
+                ? (RequestContext) context
+                : new RequestContext(context.request());
+        final Object value = requestContext.json().map(json -> json.value(path)).orElse(JsonDocument.MISSING);
+        return value != JsonDocument.MISSING && matcher.matches(value);
+    }
+
+    @Override
+    public String getDebugMessage() {
+        return "body JSON path " + path + " matches";
+    }
+
+}
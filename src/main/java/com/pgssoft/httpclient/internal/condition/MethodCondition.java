@@ -17,6 +17,10 @@ public final class MethodCondition implements Condition {
         return request.method().equals(method);
     }
 
+    public String getMethod() {
+        return method;
+    }
+
     @Override
     public String getDebugMessage() {
         return "HTTP method is " + method;
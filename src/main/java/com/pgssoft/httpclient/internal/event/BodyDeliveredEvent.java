@@ -0,0 +1,81 @@
+package com.pgssoft.httpclient.internal.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * Spans delivery of response body, from subscription of body subscriber until body is completed or cancelled. Event
+ * is committed by thread which terminated delivery.
+ */
+@Name("com.pgssoft.httpclient.BodyDelivered")
+@Label("Body Delivered")
+@Description("Response body was delivered to body subscriber")
+@Category("HttpClientMock")
+@Enabled(false)
+@StackTrace(false)
+public final class BodyDeliveredEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Chunks")
+    public int chunks;
+
+    /**
+     * Creates started event for body of response to provided request.
+     */
+    public static BodyDeliveredEvent start(HttpRequest request) {
+        final BodyDeliveredEvent event = new BodyDeliveredEvent();
+        event.method = request.method();
+        event.uri = request.uri().toString();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Returns iterator which counts chunks pulled from provided iterator into this event.
+     */
+    public Iterator<ByteBuffer> count(Iterator<ByteBuffer> delivered) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return delivered.hasNext();
+            }
+
+            @Override
+            public ByteBuffer next() {
+                final ByteBuffer chunk = delivered.next();
+                bytes += chunk.remaining();
+                chunks++;
+                return chunk;
+            }
+        };
+    }
+
+    /**
+     * Returns termination callback which runs provided callback and commits this event.
+     */
+    public Runnable commitAfter(Runnable onTermination) {
+        return () -> {
+            onTermination.run();
+            commit();
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.pgssoft.httpclient.internal.event;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.internal.rule.LookupTrace;
+
+import java.net.http.HttpRequest;
+
+/**
+ * Flight recorder events of handling single request. Created only when {@link MockEvents#lookupEnabled()} returns
+ * true, so mock refers to event classes only through this class.
+ */
+public final class LookupEvents {
+
+    private final HttpRequest request;
+    private final LookupTrace trace;
+    private final RuleMatchEvent matchEvent = new RuleMatchEvent();
+    private final NoMatchingRuleEvent noMatchEvent = new NoMatchingRuleEvent();
+    private ResponseProducedEvent responseEvent;
+
+    private LookupEvents(HttpRequest request, LookupTrace trace) {
+        this.request = request;
+        this.trace = trace;
+    }
+
+    /**
+     * Starts timing of rule lookup.
+     */
+    public static LookupEvents begin(HttpRequest request) {
+        final LookupEvents events = new LookupEvents(request, new LookupTrace());
+        events.matchEvent.begin();
+        events.noMatchEvent.begin();
+        return events;
+    }
+
+    /**
+     * @return trace which receives details of lookup, which are added to events
+     */
+    public LookupTrace trace() {
+        return trace;
+    }
+
+    public void matched() {
+        matchEvent.commit(request, trace);
+        responseEvent = new ResponseProducedEvent();
+        responseEvent.begin();
+    }
+
+    public void notMatched(int ruleCount) {
+        noMatchEvent.commit(request, trace, ruleCount);
+    }
+
+    public void produced(MockedServerResponse response) {
+        responseEvent.commit(request, trace, response);
+    }
+}
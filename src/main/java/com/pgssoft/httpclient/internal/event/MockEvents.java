@@ -0,0 +1,52 @@
+package com.pgssoft.httpclient.internal.event;
+
+import java.util.Optional;
+
+/**
+ * Checks if mock events are enabled in any running flight recording. Events are disabled by default, and while they
+ * are disabled mock doesn't create them at all. Flight recorder is optional dependency, so when runtime doesn't
+ * contain jdk.jfr module, or module of library can't read it, events are never enabled and event classes are never
+ * loaded.
+ */
+public final class MockEvents {
+
+    private static final boolean AVAILABLE = flightRecorderAvailable();
+
+    private MockEvents() {
+    }
+
+    /**
+     * @return true if any of rule lookup or response production events is enabled
+     */
+    public static boolean lookupEnabled() {
+        return AVAILABLE && Probes.lookupEnabled();
+    }
+
+    public static boolean bodyEnabled() {
+        return AVAILABLE && Probes.bodyEnabled();
+    }
+
+    private static boolean flightRecorderAvailable() {
+        final Optional<Module> flightRecorder = ModuleLayer.boot().findModule("jdk.jfr");
+        return flightRecorder.isPresent() && MockEvents.class.getModule().canRead(flightRecorder.get());
+    }
+
+    /**
+     * Holds event instances used to check if events are enabled, loaded only when flight recorder is available.
+     */
+    private static final class Probes {
+
+        private static final RuleMatchEvent RULE_MATCH = new RuleMatchEvent();
+        private static final NoMatchingRuleEvent NO_MATCHING_RULE = new NoMatchingRuleEvent();
+        private static final ResponseProducedEvent RESPONSE_PRODUCED = new ResponseProducedEvent();
+        private static final BodyDeliveredEvent BODY_DELIVERED = new BodyDeliveredEvent();
+
+        private static boolean lookupEnabled() {
+            return RULE_MATCH.isEnabled() || NO_MATCHING_RULE.isEnabled() || RESPONSE_PRODUCED.isEnabled();
+        }
+
+        private static boolean bodyEnabled() {
+            return BODY_DELIVERED.isEnabled();
+        }
+    }
+}
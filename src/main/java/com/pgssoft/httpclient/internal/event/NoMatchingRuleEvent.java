@@ -0,0 +1,47 @@
+package com.pgssoft.httpclient.internal.event;
+
+import com.pgssoft.httpclient.internal.rule.LookupTrace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.http.HttpRequest;
+
+@Name("com.pgssoft.httpclient.NoMatchingRule")
+@Label("No Matching Rule")
+@Description("No rule matched request")
+@Category("HttpClientMock")
+@Enabled(false)
+@StackTrace(false)
+public final class NoMatchingRuleEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Candidates")
+    @Description("Number of rules evaluated")
+    public int candidates;
+
+    @Label("Rules")
+    @Description("Number of defined rules")
+    public int rules;
+
+    public void commit(HttpRequest request, LookupTrace trace, int ruleCount) {
+        end();
+        if (shouldCommit()) {
+            method = request.method();
+            uri = request.uri().toString();
+            candidates = trace.candidates();
+            rules = ruleCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pgssoft.httpclient.internal.event;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.internal.rule.LookupTrace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.http.HttpRequest;
+
+@Name("com.pgssoft.httpclient.ResponseProduced")
+@Label("Response Produced")
+@Description("Actions of matching rule produced response")
+@Category("HttpClientMock")
+@Enabled(false)
+@StackTrace(false)
+public final class ResponseProducedEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Rule Index")
+    public int ruleIndex;
+
+    @Label("Status Code")
+    public int statusCode;
+
+    public void commit(HttpRequest request, LookupTrace trace, MockedServerResponse response) {
+        end();
+        if (shouldCommit()) {
+            method = request.method();
+            uri = request.uri().toString();
+            ruleIndex = trace.ruleIndex();
+            statusCode = response.statusCode();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.pgssoft.httpclient.internal.event;
+
+import com.pgssoft.httpclient.internal.rule.LookupTrace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.net.http.HttpRequest;
+
+@Name("com.pgssoft.httpclient.RuleMatch")
+@Label("Rule Match")
+@Description("Rule matching request was found")
+@Category("HttpClientMock")
+@Enabled(false)
+@StackTrace(false)
+public final class RuleMatchEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Rule Index")
+    @Description("Position of matching rule in order of definition, starting from 0")
+    public int ruleIndex;
+
+    @Label("Candidates")
+    @Description("Number of rules evaluated before match was found")
+    public int candidates;
+
+    public void commit(HttpRequest request, LookupTrace trace) {
+        end();
+        if (shouldCommit()) {
+            method = request.method();
+            uri = request.uri().toString();
+            ruleIndex = trace.ruleIndex();
+            candidates = trace.candidates();
+            commit();
+        }
+    }
+}
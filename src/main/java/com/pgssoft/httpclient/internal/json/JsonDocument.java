@@ -0,0 +1,147 @@
+package com.pgssoft.httpclient.internal.json;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values of JSON paths found in document. When first path is requested, document is scanned once for all paths known
+ * upfront, and the scan stops as soon as all of them are found. Subtrees which contain no requested path are skipped
+ * without decoding. Values of paths not known upfront are found with another scan.
+ */
+public final class JsonDocument {
+
+    /**
+     * Value of path which is not present in document, or of any path when document is not valid JSON.
+     */
+    public static final Object MISSING = new Object();
+
+    private final ByteBuffer json;
+    private final Set<JsonPath> knownPaths;
+    private final Map<JsonPath, Object> values = new HashMap<>();
+
+    public JsonDocument(ByteBuffer json, Set<JsonPath> knownPaths) {
+        this.json = json;
+        this.knownPaths = knownPaths;
+    }
+
+    /**
+     * Returns value at provided path: {@link String}, {@link Number}, {@link Boolean}, null, raw JSON text of object
+     * or array, or {@link #MISSING}.
+     */
+    public synchronized Object value(JsonPath path) {
+        if (!values.containsKey(path)) {
+            final List<JsonPath> wanted = new ArrayList<>();
+            wanted.add(path);
+            for (JsonPath known : knownPaths) {
+                if (!known.equals(path) && !values.containsKey(known)) {
+                    wanted.add(known);
+                }
+            }
+            final Scan scan = new Scan(wanted.size());
+            try {
+                scan.value(new JsonReader(json.duplicate()), wanted, 0);
+            } catch (IllegalArgumentException e) {
+                scan.found.clear();
+            }
+            for (JsonPath p : wanted) {
+                values.put(p, scan.found.getOrDefault(p, MISSING));
+            }
+        }
+        return values.get(path);
+    }
+
+    private static final class Scan {
+
+        private final Map<JsonPath, Object> found = new HashMap<>();
+        private int remaining;
+
+        Scan(int remaining) {
+            this.remaining = remaining;
+        }
+
+        /**
+         * Reads value at current position of reader, which is at provided depth of all candidate paths.
+         *
+         * @return false when all paths are found and scan can stop
+         */
+        boolean value(JsonReader reader, List<JsonPath> candidates, int depth) {
+            JsonPath exact = null;
+            final List<JsonPath> deeper = new ArrayList<>(candidates.size());
+            for (JsonPath candidate : candidates) {
+                if (candidate.size() == depth) {
+                    exact = candidate;
+                } else {
+                    deeper.add(candidate);
+                }
+            }
+            final JsonReader.Token token = reader.peek();
+            final boolean container = token == JsonReader.Token.BEGIN_OBJECT || token == JsonReader.Token.BEGIN_ARRAY;
+            if (deeper.isEmpty() || !container) {
+                if (exact == null) {
+                    reader.skipValue();
+                } else {
+                    resolve(exact, reader.nextValue());
+                }
+                return remaining > 0;
+            }
+            final int start = reader.position();
+            final boolean more = token == JsonReader.Token.BEGIN_OBJECT ? object(reader, deeper, depth) : array(reader, deeper, depth);
+            if (exact != null) {
+                if (!more) {
+                    return false;
+                }
+                resolve(exact, reader.rawText(start));
+            }
+            return remaining > 0;
+        }
+
+        private boolean object(JsonReader reader, List<JsonPath> candidates, int depth) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (!member(reader, candidates, depth, name)) {
+                    return false;
+                }
+            }
+            reader.endObject();
+            return true;
+        }
+
+        private boolean array(JsonReader reader, List<JsonPath> candidates, int depth) {
+            reader.beginArray();
+            int index = 0;
+            while (reader.hasNext()) {
+                if (!member(reader, candidates, depth, index++)) {
+                    return false;
+                }
+            }
+            reader.endArray();
+            return true;
+        }
+
+        private boolean member(JsonReader reader, List<JsonPath> candidates, int depth, Object segment) {
+            final List<JsonPath> matching = new ArrayList<>(1);
+            for (JsonPath candidate : candidates) {
+                if (candidate.segment(depth).equals(segment) && !found.containsKey(candidate)) {
+                    matching.add(candidate);
+                }
+            }
+            if (matching.isEmpty()) {
+                reader.skipValue();
+                return true;
+            }
+            return value(reader, matching, depth + 1);
+        }
+
+        private void resolve(JsonPath path, Object value) {
+            if (!found.containsKey(path)) {
+                found.put(path, value);
+                remaining--;
+            }
+        }
+    }
+}
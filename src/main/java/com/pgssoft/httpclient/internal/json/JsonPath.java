@@ -0,0 +1,102 @@
+package com.pgssoft.httpclient.internal.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Simple JSON path, which points at single value of document. Supported syntax is {@code $.store.book[0].title},
+ * with optional leading {@code $} and names in brackets, like {@code $['first name']}, for names with special
+ * characters.
+ */
+public final class JsonPath {
+
+    private final String path;
+    private final Object[] segments;
+
+    private JsonPath(String path, Object[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    public static JsonPath parse(String path) {
+        final List<Object> segments = new ArrayList<>();
+        int i = path.startsWith("$") ? 1 : 0;
+        if (i == 0 && !path.isEmpty() && path.charAt(0) != '[') {
+            i = readName(path, i, segments);
+        }
+        while (i < path.length()) {
+            final char c = path.charAt(i);
+            if (c == '.') {
+                i = readName(path, i + 1, segments);
+            } else if (c == '[' && i + 1 < path.length() && path.charAt(i + 1) == '\'') {
+                final int end = path.indexOf("']", i + 2);
+                if (end < 0) {
+                    throw invalid(path);
+                }
+                segments.add(path.substring(i + 2, end));
+                i = end + 2;
+            } else if (c == '[') {
+                final int end = path.indexOf(']', i);
+                if (end < 0) {
+                    throw invalid(path);
+                }
+                try {
+                    final int index = Integer.parseInt(path.substring(i + 1, end));
+                    if (index < 0) {
+                        throw invalid(path);
+                    }
+                    segments.add(index);
+                } catch (NumberFormatException e) {
+                    throw invalid(path);
+                }
+                i = end + 1;
+            } else {
+                throw invalid(path);
+            }
+        }
+        return new JsonPath(path, segments.toArray());
+    }
+
+    private static int readName(String path, int start, List<Object> segments) {
+        int end = start;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+            end++;
+        }
+        if (end == start) {
+            throw invalid(path);
+        }
+        segments.add(path.substring(start, end));
+        return end;
+    }
+
+    private static IllegalArgumentException invalid(String path) {
+        return new IllegalArgumentException("Invalid JSON path: " + path);
+    }
+
+    int size() {
+        return segments.length;
+    }
+
+    /**
+     * @return name of object member or index of array element at provided depth
+     */
+    Object segment(int depth) {
+        return segments[depth];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonPath && Arrays.equals(segments, ((JsonPath) o).segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(segments);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,404 @@
+package com.pgssoft.httpclient.internal.json;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pull tokenizer of UTF-8 encoded JSON. Document is read token by token straight from bytes, nothing is materialized
+ * unless caller asks for it, and values which are not needed can be skipped without decoding them.
+ */
+public final class JsonReader {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final ByteBuffer json;
+    private int position;
+    private int[] stack = new int[16];
+    private int depth = 1;
+    private Token peeked;
+
+    public JsonReader(ByteBuffer json) {
+        this.json = json;
+        this.position = json.position();
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Returns type of next token without consuming it.
+     */
+    public Token peek() {
+        if (peeked == null) {
+            peeked = readToken();
+        }
+        return peeked;
+    }
+
+    /**
+     * Returns offset of next token. Call after {@link #peek()} to get start of value.
+     */
+    public int position() {
+        return position;
+    }
+
+    public void beginObject() {
+        expect(Token.BEGIN_OBJECT);
+        position++;
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() {
+        expect(Token.END_OBJECT);
+        position++;
+        depth--;
+    }
+
+    public void beginArray() {
+        expect(Token.BEGIN_ARRAY);
+        position++;
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() {
+        expect(Token.END_ARRAY);
+        position++;
+        depth--;
+    }
+
+    /**
+     * Checks if current object or array has more elements.
+     */
+    public boolean hasNext() {
+        final Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public String nextName() {
+        expect(Token.NAME);
+        return readString();
+    }
+
+    public String nextString() {
+        expect(Token.STRING);
+        return readString();
+    }
+
+    /**
+     * Reads number as {@link Integer}, {@link Long} or {@link BigDecimal} when it is integral, and as {@link Double}
+     * otherwise.
+     */
+    public Number nextNumber() {
+        expect(Token.NUMBER);
+        final int start = position;
+        while (position < json.limit() && isNumberPart(json.get(position))) {
+            position++;
+        }
+        final String text = ascii(start, position);
+        try {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                final BigDecimal value = new BigDecimal(text);
+                try {
+                    final long longValue = value.longValueExact();
+                    return longValue == (int) longValue ? (Number) (int) longValue : (Number) longValue;
+                } catch (ArithmeticException e) {
+                    return value;
+                }
+            }
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number " + text, start);
+        }
+    }
+
+    public boolean nextBoolean() {
+        expect(Token.BOOLEAN);
+        final boolean value = json.get(position) == 't';
+        position += value ? 4 : 5;
+        return value;
+    }
+
+    public void nextNull() {
+        expect(Token.NULL);
+        position += 4;
+    }
+
+    /**
+     * Reads next value of any type. Objects and arrays are returned as their raw JSON text.
+     */
+    public Object nextValue() {
+        switch (peek()) {
+            case STRING:
+                return nextString();
+            case NUMBER:
+                return nextNumber();
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                final int start = position();
+                skipValue();
+                return utf8(start, position);
+        }
+    }
+
+    /**
+     * Returns raw JSON text from provided offset to current position, for example of object which was just read.
+     */
+    public String rawText(int start) {
+        return utf8(start, position);
+    }
+
+    /**
+     * Skips next value, together with all nested values. Strings are not decoded.
+     */
+    public void skipValue() {
+        int nesting = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    nesting++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    nesting++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    nesting--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    nesting--;
+                    break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                    nextNumber();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw syntaxError("Unexpected end of document", position);
+            }
+        } while (nesting > 0);
+    }
+
+    private Token readToken() {
+        final int scope = stack[depth - 1];
+        if (scope == NONEMPTY_ARRAY || scope == NONEMPTY_OBJECT) {
+            final int c = nextNonWhitespace();
+            if (c == ',') {
+                position++;
+            } else if (scope == NONEMPTY_ARRAY && c == ']') {
+                return Token.END_ARRAY;
+            } else if (scope == NONEMPTY_OBJECT && c == '}') {
+                return Token.END_OBJECT;
+            } else {
+                throw syntaxError("Expected ',' but was " + describe(c), position);
+            }
+        } else if (scope == DANGLING_NAME) {
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':'", position);
+            }
+            position++;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespace() != -1) {
+                throw syntaxError("Unexpected data after document", position);
+            }
+            return Token.END_DOCUMENT;
+        }
+
+        final int c = nextNonWhitespace();
+        if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            if (c == '}' && scope == EMPTY_OBJECT) {
+                return Token.END_OBJECT;
+            }
+            if (c != '"') {
+                throw syntaxError("Expected name but was " + describe(c), position);
+            }
+            stack[depth - 1] = DANGLING_NAME;
+            return Token.NAME;
+        }
+        if (c == ']' && scope == EMPTY_ARRAY) {
+            return Token.END_ARRAY;
+        }
+        stack[depth - 1] = scope == EMPTY_ARRAY || scope == NONEMPTY_ARRAY ? NONEMPTY_ARRAY
+                : scope == DANGLING_NAME ? NONEMPTY_OBJECT
+                : NONEMPTY_DOCUMENT;
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+                literal("true");
+                return Token.BOOLEAN;
+            case 'f':
+                literal("false");
+                return Token.BOOLEAN;
+            case 'n':
+                literal("null");
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected " + describe(c), position);
+        }
+    }
+
+    private void expect(Token token) {
+        if (peek() != token) {
+            throw syntaxError("Expected " + token + " but was " + peeked, position);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+
+    private int nextNonWhitespace() {
+        while (position < json.limit()) {
+            final byte c = json.get(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return c;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    private void literal(String expected) {
+        if (position + expected.length() > json.limit() || !ascii(position, position + expected.length()).equals(expected)) {
+            throw syntaxError("Unexpected value", position);
+        }
+    }
+
+    private void skipString() {
+        position++;
+        while (position < json.limit()) {
+            final byte c = json.get(position++);
+            if (c == '\\') {
+                position++;
+            } else if (c == '"') {
+                return;
+            }
+        }
+        throw syntaxError("Unterminated string", position);
+    }
+
+    private String readString() {
+        final int start = ++position;
+        StringBuilder builder = null;
+        int chunkStart = start;
+        while (position < json.limit()) {
+            final byte c = json.get(position);
+            if (c == '"') {
+                final String tail = utf8(chunkStart, position);
+                position++;
+                return builder == null ? tail : builder.append(tail).toString();
+            }
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(utf8(chunkStart, position));
+                position++;
+                builder.append(readEscape());
+                chunkStart = position;
+            } else {
+                position++;
+            }
+        }
+        throw syntaxError("Unterminated string", start);
+    }
+
+    private char readEscape() {
+        if (position >= json.limit()) {
+            throw syntaxError("Unterminated escape sequence", position);
+        }
+        final byte c = json.get(position++);
+        switch (c) {
+            case 'u':
+                if (position + 4 > json.limit()) {
+                    throw syntaxError("Unterminated escape sequence", position);
+                }
+                try {
+                    final char value = (char) Integer.parseInt(ascii(position, position + 4), 16);
+                    position += 4;
+                    return value;
+                } catch (NumberFormatException e) {
+                    throw syntaxError("Invalid escape sequence", position);
+                }
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw syntaxError("Invalid escape sequence", position - 1);
+        }
+    }
+
+    private String utf8(int start, int end) {
+        final ByteBuffer slice = json.duplicate();
+        slice.limit(end).position(start);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    private String ascii(int start, int end) {
+        final char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = (char) (json.get(i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    private static boolean isNumberPart(byte c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private static String describe(int c) {
+        return c == -1 ? "end of document" : "'" + (char) c + "'";
+    }
+
+    private IllegalArgumentException syntaxError(String message, int offset) {
+        return new IllegalArgumentException(message + " at offset " + (offset - json.position()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.pgssoft.httpclient.internal.rule;
+
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.action.ActionBundle;
+
+import java.util.List;
+
+/**
+ * Action bundles which replace regular response of rule with some probability, like injected faults.
+ */
+final class Alternatives {
+
+    static final Alternatives NONE = new Alternatives(List.of(), List.of());
+
+    private final ActionBundle[] bundles;
+    private final double[] cumulativeProbabilities;
+
+    Alternatives(List<ActionBundle> bundles, List<Double> probabilities) {
+        this.bundles = bundles.toArray(new ActionBundle[0]);
+        this.cumulativeProbabilities = new double[probabilities.size()];
+        double cumulative = 0;
+        for (int i = 0; i < cumulativeProbabilities.length; i++) {
+            cumulative += probabilities.get(i);
+            cumulativeProbabilities[i] = cumulative;
+        }
+    }
+
+    /**
+     * Draws alternative for single response.
+     *
+     * @return chosen bundle, or null if regular response should be produced
+     */
+    ActionBundle choose(RandomSource random) {
+        if (bundles.length == 0) {
+            return null;
+        }
+        final double draw = random.nextDouble();
+        for (int i = 0; i < bundles.length; i++) {
+            if (draw < cumulativeProbabilities[i]) {
+                return bundles[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pgssoft.httpclient.internal.rule;
+
+/**
+ * Details of single rule lookup: how many candidate rules were evaluated and position of rule which matched.
+ */
+public final class LookupTrace {
+
+    private int candidates;
+    private int ruleIndex = -1;
+
+    void evaluated(int ordinal, boolean matched) {
+        candidates++;
+        if (matched) {
+            ruleIndex = ordinal;
+        }
+    }
+
+    public int candidates() {
+        return candidates;
+    }
+
+    /**
+     * @return position of matching rule in list of rules, -1 if no rule matched
+     */
+    public int ruleIndex() {
+        return ruleIndex;
+    }
+}
@@ -0,0 +1,107 @@
+package com.pgssoft.httpclient.internal.rule;
+
+import com.pgssoft.httpclient.internal.PathTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Segment trie of rule ordinals. Literal paths and path templates are inserted segment by segment, so routing request
+ * path costs O(path segments) regardless of number of rules. Rules with path matchers that can't be inspected are kept
+ * in a residual list which is a candidate for every path.
+ */
+final class PathTrie {
+
+    private final Node root = new Node();
+    private final List<Integer> residual = new ArrayList<>();
+    private int[] residualOrdinals = new int[0];
+
+    void addLiteral(String path, int ordinal) {
+        final String[] segments = PathTemplate.split(path);
+        Node node = root;
+        for (String segment : segments) {
+            node = node.literalChildren.computeIfAbsent(segment, k -> new Node());
+        }
+        node.add(ordinal);
+    }
+
+    void addTemplate(PathTemplate template, int ordinal) {
+        Node node = root;
+        for (int i = 0; i < template.size(); i++) {
+            final String segment = template.literalSegment(i);
+            if (segment == null) {
+                if (node.variableChild == null) {
+                    node.variableChild = new Node();
+                }
+                node = node.variableChild;
+            } else {
+                node = node.literalChildren.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+        node.add(ordinal);
+    }
+
+    void addResidual(int ordinal) {
+        residual.add(ordinal);
+    }
+
+    /**
+     * Freezes collected ordinals into arrays. Must be called once, after all rules are added.
+     */
+    PathTrie compile() {
+        root.compile();
+        residualOrdinals = residual.stream().mapToInt(Integer::intValue).toArray();
+        return this;
+    }
+
+    /**
+     * Passes to consumer ordered arrays of ordinals of every rule which path condition may match provided path.
+     *
+     * @param segments request path split by {@link PathTemplate#split(String)}
+     * @param consumer consumer of candidate ordinals
+     */
+    void collect(String[] segments, Consumer<int[]> consumer) {
+        collect(root, segments, 0, consumer);
+        if (residualOrdinals.length > 0) {
+            consumer.accept(residualOrdinals);
+        }
+    }
+
+    private static void collect(Node node, String[] segments, int depth, Consumer<int[]> consumer) {
+        if (depth == segments.length) {
+            if (node.ordinals.length > 0) {
+                consumer.accept(node.ordinals);
+            }
+            return;
+        }
+        final Node literal = node.literalChildren.get(segments[depth]);
+        if (literal != null) {
+            collect(literal, segments, depth + 1, consumer);
+        }
+        if (node.variableChild != null && !segments[depth].isEmpty()) {
+            collect(node.variableChild, segments, depth + 1, consumer);
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literalChildren = new HashMap<>();
+        private final List<Integer> collected = new ArrayList<>();
+        private Node variableChild;
+        private int[] ordinals = new int[0];
+
+        private void add(int ordinal) {
+            collected.add(ordinal);
+        }
+
+        private void compile() {
+            ordinals = collected.stream().mapToInt(Integer::intValue).toArray();
+            literalChildren.values().forEach(Node::compile);
+            if (variableChild != null) {
+                variableChild.compile();
+            }
+        }
+    }
+}
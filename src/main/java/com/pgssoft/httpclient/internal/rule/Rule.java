@@ -1,53 +1,225 @@
 package com.pgssoft.httpclient.internal.rule;
 
 import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.ResponseSequencing;
+import com.pgssoft.httpclient.internal.PathTemplate;
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestContext;
 import com.pgssoft.httpclient.internal.UrlConditions;
-import com.pgssoft.httpclient.Action;
 import com.pgssoft.httpclient.internal.action.ActionBundle;
 import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.internal.condition.JsonPathCondition;
+import com.pgssoft.httpclient.internal.condition.MethodCondition;
 import com.pgssoft.httpclient.internal.debug.Debugger;
+import com.pgssoft.httpclient.internal.json.JsonPath;
 
 import java.io.IOException;
 import java.net.http.HttpRequest;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public final class Rule {
 
     private final UrlConditions urlConditions;
     private final List<Condition> conditions;
-    private final Queue<ActionBundle> actionBundles;
+    private final ActionBundle[] actionBundles;
+    private final ResponseSequencing sequencing;
+    private final Alternatives alternatives;
+    private final AtomicLong responseCursor;
+    private final String method;
+    private final Set<JsonPath> jsonPaths;
+    private volatile RuleStats stats;
+    private final String literalUrl;
 
-    public Rule(UrlConditions urlConditions, List<Condition> conditions, Queue<ActionBundle> actionBundles) {
+    public Rule(UrlConditions urlConditions, List<Condition> conditions, List<ActionBundle> actionBundles, ResponseSequencing sequencing) {
+        this(urlConditions, conditions, actionBundles, sequencing, Alternatives.NONE, null, null);
+    }
+
+    /**
+     * @param previous rule replaced by this one, which response sequence and statistics are continued, or null
+     */
+    Rule(UrlConditions urlConditions, List<Condition> conditions, List<ActionBundle> actionBundles, ResponseSequencing sequencing,
+         Alternatives alternatives, String literalUrl, Rule previous) {
         this.urlConditions = urlConditions;
         this.conditions = conditions;
-        this.actionBundles = actionBundles;
+        this.actionBundles = actionBundles.toArray(new ActionBundle[0]);
+        this.sequencing = sequencing;
+        this.alternatives = alternatives;
+        this.literalUrl = literalUrl;
+        this.responseCursor = previous == null ? new AtomicLong() : previous.responseCursor;
+        this.stats = previous == null ? null : previous.stats();
+        this.method = conditions.stream()
+                .filter(MethodCondition.class::isInstance)
+                .map(c -> ((MethodCondition) c).getMethod())
+                .findFirst()
+                .orElse(null);
+        this.jsonPaths = conditions.stream()
+                .filter(JsonPathCondition.class::isInstance)
+                .map(c -> ((JsonPathCondition) c).getPath())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Returns HTTP method required by this rule, or null if rule accepts any method.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns JSON paths of request body checked by this rule.
+     */
+    public Set<JsonPath> getJsonPaths() {
+        return jsonPaths;
+    }
+
+    /**
+     * Returns URL from which all conditions of rule, except method, were parsed, or null if rule has other conditions
+     * or probabilistic responses. Such rule is fully described by method, URL and its action bundles.
+     */
+    public String getLiteralUrl() {
+        return literalUrl;
+    }
+
+    public List<ActionBundle> getActionBundles() {
+        return List.of(actionBundles);
+    }
+
+    public ResponseSequencing getSequencing() {
+        return sequencing;
+    }
+
+    public String getHostLiteral() {
+        return urlConditions.getHostLiteral();
+    }
+
+    public String getPathLiteral() {
+        return urlConditions.getPathLiteral();
+    }
+
+    public PathTemplate getPathTemplate() {
+        return urlConditions.getPathTemplate();
     }
 
     public boolean matches(HttpRequest request) {
-        return urlConditions.matches(request.uri()) &&
-                conditions.stream().allMatch(c -> c.matches(request));
+        return matches(new RequestContext(request));
     }
 
-    public MockedServerResponse produceResponse() throws IOException {
-        final var responseBuilder = new MockedServerResponse.Builder();
+    public boolean matches(RequestContext context) {
+        if (!urlConditions.matches(context)) {
+            return false;
+        }
+        for (Condition condition : conditions) {
+            if (!condition.matches(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        final var actionBundle = actionBundles.size() > 1 ? actionBundles.poll() : actionBundles.peek();
-        for (Action a : actionBundle) {
-            a.enrichResponse(responseBuilder);
+    /**
+     * Checks if request matches rule and records time of check in rule statistics.
+     */
+    public boolean matchesMeasured(RequestContext context) {
+        final long start = System.nanoTime();
+        final boolean matched = matches(context);
+        stats().recordMatching(matched, System.nanoTime() - start);
+        return matched;
+    }
+
+    /**
+     * Produces response and records time of production in rule statistics.
+     */
+    public MockedServerResponse produceResponseMeasured(RequestContext context, RandomSource random) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            return produceResponse(context, random);
+        } finally {
+            stats().recordProduction(System.nanoTime() - start);
         }
+    }
 
-        return responseBuilder.build();
+    /**
+     * Returns statistics of rule, created when first needed.
+     */
+    public RuleStats stats() {
+        RuleStats result = stats;
+        if (result == null) {
+            synchronized (this) {
+                result = stats;
+                if (result == null) {
+                    stats = result = new RuleStats();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns short description of rule, made of its method, host and path conditions.
+     */
+    public String describe() {
+        final String host = getHostLiteral();
+        final String path = getPathLiteral() != null ? getPathLiteral()
+                : getPathTemplate() != null ? getPathTemplate().getTemplate() : "*";
+        return (method == null ? "*" : method) + " " + (host == null ? "*" : host) + " " + path;
+    }
+
+    /**
+     * Produces response from probabilistic alternative when one is drawn, and from next bundle of sequence otherwise.
+     *
+     * @param random source of numbers used to draw alternative and random values of response
+     */
+    public MockedServerResponse produceResponse(RequestContext context, RandomSource random) throws IOException {
+        final var alternative = alternatives.choose(random);
+        final var actionBundle = alternative != null ? alternative : nextActionBundle(random);
+        final PathTemplate pathTemplate = getPathTemplate();
+        return actionBundle.produceResponse(context,
+                () -> pathTemplate == null ? Map.of() : pathTemplate.variables(context.path()), random::generator);
+    }
+
+    /**
+     * Chooses action bundle producing next response according to sequencing of rule. Bundle is claimed with single
+     * atomic increment, so concurrent requests never skip or share response of sequence.
+     */
+    private ActionBundle nextActionBundle(RandomSource random) {
+        final int count = actionBundles.length;
+        if (count == 0) {
+            throw new IllegalStateException("Rule " + describe() + " has no actions." + random.failureNote());
+        }
+        if (count == 1 && sequencing != ResponseSequencing.EXHAUSTIBLE) {
+            return actionBundles[0];
+        }
+        switch (sequencing) {
+            case CYCLIC:
+                return actionBundles[(int) Long.remainderUnsigned(responseCursor.getAndIncrement(), count)];
+            case EXHAUSTIBLE:
+                final long next = responseCursor.getAndIncrement();
+                if (next >= count) {
+                    throw new IllegalStateException("Rule " + describe() + " already returned all " + count + " responses."
+                            + random.failureNote());
+                }
+                return actionBundles[(int) next];
+            default:
+                if (responseCursor.get() >= count - 1) {
+                    return actionBundles[count - 1];
+                }
+                return actionBundles[(int) Math.min(responseCursor.getAndIncrement(), count - 1)];
+        }
     }
 
     public void debug(HttpRequest request, Debugger debugger) {
+        final RequestContext context = new RequestContext(request);
         for (Condition condition : conditions) {
-            debugCondition(condition, request, debugger);
+            debugCondition(condition, context, debugger);
         }
         urlConditions.debug(request, debugger);
     }
 
-    private void debugCondition(Condition condition, HttpRequest request, Debugger debugger) {
-        debugger.message(condition.matches(request), condition.getDebugMessage());
+    private void debugCondition(Condition condition, RequestContext context, Debugger debugger) {
+        debugger.message(condition.matches(context), condition.getDebugMessage());
     }
 }
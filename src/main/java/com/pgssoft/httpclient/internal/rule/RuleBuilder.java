@@ -1,9 +1,12 @@
 package com.pgssoft.httpclient.internal.rule;
 
+import com.pgssoft.httpclient.internal.PathTemplate;
 import com.pgssoft.httpclient.internal.UrlConditions;
 import com.pgssoft.httpclient.Action;
 import com.pgssoft.httpclient.internal.action.ActionBundle;
+import com.pgssoft.httpclient.internal.action.SetStatusAction;
 import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.ResponseSequencing;
 import com.pgssoft.httpclient.internal.condition.MethodCondition;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
@@ -15,55 +18,184 @@ public final class RuleBuilder {
     private final Deque<ActionBundle> actionBundles = new LinkedList<>();
     private final List<Condition> conditions = new ArrayList<>();
     private final UrlConditions urlConditions;
+    private ResponseSequencing sequencing = ResponseSequencing.REPEAT_LAST;
+    private final List<ActionBundle> alternatives = new ArrayList<>();
+    private final List<Double> probabilities = new ArrayList<>();
+    private ActionBundle current;
+    private String literalUrl;
+    private Rule rule;
+    private boolean changed = true;
+    private Runnable changeListener;
 
     public RuleBuilder(String method, String host, String url) {
         url = url.startsWith("/") ? host + url : url;
-        addCondition(new MethodCondition(method));
+        conditions.add(new MethodCondition(method));
         urlConditions = UrlConditions.parse(url);
+        this.literalUrl = urlConditions.getPathTemplate() == null ? url : null;
     }
 
     public RuleBuilder(String method) {
-        addCondition(new MethodCondition(method));
+        conditions.add(new MethodCondition(method));
         urlConditions = new UrlConditions();
     }
 
+    /**
+     * Creates builder of rule matching requests of any method.
+     */
+    public RuleBuilder() {
+        urlConditions = new UrlConditions();
+    }
+
+    /**
+     * Adds action to the last added bundle, either regular or probabilistic one.
+     */
     public void addAction(Action action) {
-        var bundle = actionBundles.peekLast();
-        if (bundle == null) {
-            bundle = new ActionBundle();
-            actionBundles.add(bundle);
-        }
-        bundle.add(action);
+        change(() -> {
+            if (current == null) {
+                current = new ActionBundle();
+                actionBundles.add(current);
+            }
+            current.add(action);
+        });
     }
 
     public void addActionBundle(Action action) {
-        final var bundle = new ActionBundle();
-        bundle.add(action);
-        actionBundles.add(bundle);
+        change(() -> {
+            current = new ActionBundle();
+            current.add(action);
+            actionBundles.add(current);
+        });
+    }
+
+    /**
+     * Adds bundle which replaces regular response with provided probability.
+     *
+     * @param probability probability of choosing bundle, sum of probabilities of all bundles of rule must not exceed 1
+     * @param action      first action of bundle
+     */
+    public void addProbableActionBundle(double probability, Action action) {
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("probability must be in range [0, 1]");
+        }
+        change(() -> {
+            final double total = probabilities.stream().mapToDouble(Double::doubleValue).sum() + probability;
+            if (total > 1 + 1e-9) {
+                throw new IllegalArgumentException("sum of probabilities must not exceed 1, but is " + total);
+            }
+            current = new ActionBundle();
+            current.add(action);
+            alternatives.add(current);
+            probabilities.add(probability);
+        });
+    }
+
+    public void setSequencing(ResponseSequencing sequencing) {
+        change(() -> this.sequencing = sequencing);
     }
 
     public void addCondition(Condition condition) {
-        conditions.add(condition);
+        change(() -> {
+            conditions.add(condition);
+            literalUrl = null;
+        });
     }
 
 
     public void setParameterCondition(String name, Matcher<String> matcher) {
-        urlConditions.getParameterConditions().addParam(name, Matchers.containsInAnyOrder(List.of(matcher)));
+        change(() -> {
+            urlConditions.getParameterConditions().addParam(name, Matchers.containsInAnyOrder(List.of(matcher)));
+            literalUrl = null;
+        });
     }
 
     public void setReferenceCondition(Matcher<String> matcher) {
-        urlConditions.setReferenceCondition(matcher);
+        change(() -> {
+            urlConditions.setReferenceCondition(matcher);
+            literalUrl = null;
+        });
     }
 
     public void addHostCondition(String host) {
-       urlConditions.setHostCondition(Matchers.equalTo(host));
+        change(() -> {
+            urlConditions.setHostCondition(host);
+            literalUrl = null;
+        });
     }
 
     public void setPathCondition(Matcher<String> matcher) {
-        urlConditions.setPathCondition(matcher);
+        change(() -> {
+            urlConditions.setPathCondition(matcher);
+            literalUrl = null;
+        });
+    }
+
+    public void setPathCondition(String path) {
+        change(() -> {
+            urlConditions.setPathCondition(path);
+            literalUrl = null;
+        });
+    }
+
+    public void setPathTemplate(String template) {
+        change(() -> {
+            urlConditions.setPathTemplate(PathTemplate.parse(template));
+            literalUrl = null;
+        });
+    }
+
+    /**
+     * Sets listener notified whenever rule is changed, so mock can compile new version of it. Listener is called
+     * without lock of builder held.
+     */
+    public synchronized void onChange(Runnable listener) {
+        this.changeListener = listener;
+    }
+
+    /**
+     * Builds rule. Rule is immutable snapshot of builder, so the same rule is returned until builder is changed. Rule
+     * built after change continues response sequence of previous one. Rule defined only with probable responses
+     * returns empty response with status 200 when none of them is drawn.
+     */
+    public synchronized Rule build() {
+        if (!changed) {
+            return rule;
+        }
+        final List<ActionBundle> bundles = copy(actionBundles);
+        if (bundles.isEmpty() && !alternatives.isEmpty()) {
+            final ActionBundle defaultResponse = new ActionBundle();
+            defaultResponse.add(new SetStatusAction(200));
+            defaultResponse.compile();
+            bundles.add(defaultResponse);
+        }
+        rule = new Rule(urlConditions.copy(), List.copyOf(conditions), bundles, sequencing,
+                new Alternatives(copy(alternatives), probabilities), alternatives.isEmpty() ? literalUrl : null, rule);
+        changed = false;
+        return rule;
+    }
+
+    /**
+     * Copies bundles, so rules already built are not affected by actions added later.
+     */
+    private static List<ActionBundle> copy(Collection<ActionBundle> bundles) {
+        final List<ActionBundle> copies = new ArrayList<>(bundles.size());
+        for (ActionBundle bundle : bundles) {
+            final ActionBundle copy = new ActionBundle();
+            copy.addAll(bundle);
+            copy.compile();
+            copies.add(copy);
+        }
+        return copies;
     }
 
-    public Rule build() {
-        return new Rule(urlConditions, conditions, actionBundles);
+    private void change(Runnable change) {
+        final Runnable listener;
+        synchronized (this) {
+            change.run();
+            listener = changeListener;
+            changed = true;
+        }
+        if (listener != null) {
+            listener.run();
+        }
     }
 }
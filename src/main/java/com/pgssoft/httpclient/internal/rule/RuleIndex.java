@@ -0,0 +1,178 @@
+package com.pgssoft.httpclient.internal.rule;
+
+import com.pgssoft.httpclient.internal.PathTemplate;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.json.JsonPath;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Dispatch index over a list of rules. Rules are grouped by HTTP method and host whenever those conditions are literal
+ * values, and then routed by path in a {@link PathTrie}, so only rules which can possibly match request are evaluated.
+ * Rules with non literal method or host are stored under null key and are candidates for every request. Candidates
+ * are visited from the last defined rule to the first one, so the first matching rule is the one that would win linear
+ * scan.
+ */
+public final class RuleIndex {
+
+    private final List<Rule> rules;
+    private final Map<String, Map<String, PathTrie>> buckets;
+    private final Set<JsonPath> jsonPaths;
+
+    public RuleIndex(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        this.buckets = buildBuckets(this.rules);
+        this.jsonPaths = this.rules.stream()
+                .flatMap(rule -> rule.getJsonPaths().stream())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static Map<String, Map<String, PathTrie>> buildBuckets(List<Rule> rules) {
+        final Map<String, Map<String, PathTrie>> result = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            final Rule rule = rules.get(i);
+            final PathTrie trie = result.computeIfAbsent(rule.getMethod(), k -> new HashMap<>())
+                    .computeIfAbsent(rule.getHostLiteral(), k -> new PathTrie());
+            if (rule.getPathLiteral() != null) {
+                trie.addLiteral(rule.getPathLiteral(), i);
+            } else if (rule.getPathTemplate() != null) {
+                trie.addTemplate(rule.getPathTemplate(), i);
+            } else {
+                trie.addResidual(i);
+            }
+        }
+        result.values().forEach(hosts -> hosts.values().forEach(PathTrie::compile));
+        return result;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns JSON paths of request body checked by any rule.
+     */
+    public Set<JsonPath> getJsonPaths() {
+        return jsonPaths;
+    }
+
+    /**
+     * Finds last defined rule matching request.
+     *
+     * @param context request to match
+     * @return matching rule or empty if no rule matches
+     */
+    public Optional<Rule> findLast(RequestContext context) {
+        return findLast(context, false, null);
+    }
+
+    /**
+     * Finds last defined rule matching request.
+     *
+     * @param context request to match
+     * @param measure whether evaluation of every candidate is recorded in its statistics
+     * @param trace   receives details of lookup, may be null
+     * @return matching rule or empty if no rule matches
+     */
+    public Optional<Rule> findLast(RequestContext context, boolean measure, LookupTrace trace) {
+        final String host = context.host();
+        final String[] segments = PathTemplate.split(context.path());
+
+        final Candidates candidates = new Candidates();
+        collect(buckets.get(context.method()), host, segments, candidates);
+        collect(buckets.get(null), host, segments, candidates);
+        return candidates.findLast(context, measure, trace);
+    }
+
+    /**
+     * Visits all rules matching request, in no particular order.
+     *
+     * @param context request to match
+     * @param action  called with position of every matching rule in list of rules
+     */
+    public void forEachMatch(RequestContext context, IntConsumer action) {
+        final String host = context.host();
+        final String[] segments = PathTemplate.split(context.path());
+
+        final Candidates candidates = new Candidates();
+        collect(buckets.get(context.method()), host, segments, candidates);
+        collect(buckets.get(null), host, segments, candidates);
+        candidates.forEachMatch(context, action);
+    }
+
+    private static void collect(Map<String, PathTrie> hosts, String host, String[] segments, Candidates candidates) {
+        if (hosts == null) {
+            return;
+        }
+        final PathTrie hostTrie = hosts.get(host);
+        if (hostTrie != null) {
+            hostTrie.collect(segments, candidates);
+        }
+        final PathTrie anyHostTrie = hosts.get(null);
+        if (anyHostTrie != null) {
+            anyHostTrie.collect(segments, candidates);
+        }
+    }
+
+    /**
+     * Ordered arrays of candidate ordinals, merged from the highest ordinal to the lowest one.
+     */
+    private final class Candidates implements Consumer<int[]> {
+
+        private int[][] ordinals = new int[4][];
+        private int[] positions = new int[4];
+        private int count;
+
+        @Override
+        public void accept(int[] values) {
+            if (count == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, count * 2);
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            ordinals[count] = values;
+            positions[count] = values.length - 1;
+            count++;
+        }
+
+        private Optional<Rule> findLast(RequestContext context, boolean measure, LookupTrace trace) {
+            while (true) {
+                int best = -1;
+                for (int i = 0; i < count; i++) {
+                    if (positions[i] >= 0 && (best < 0 || ordinals[i][positions[i]] > ordinals[best][positions[best]])) {
+                        best = i;
+                    }
+                }
+                if (best < 0) {
+                    return Optional.empty();
+                }
+                final int ordinal = ordinals[best][positions[best]--];
+                final Rule rule = rules.get(ordinal);
+                final boolean matched = measure ? rule.matchesMeasured(context) : rule.matches(context);
+                if (trace != null) {
+                    trace.evaluated(ordinal, matched);
+                }
+                if (matched) {
+                    return Optional.of(rule);
+                }
+            }
+        }
+
+        private void forEachMatch(RequestContext context, IntConsumer action) {
+            for (int i = 0; i < count; i++) {
+                for (int ordinal : ordinals[i]) {
+                    if (rules.get(ordinal).matches(context)) {
+                        action.accept(ordinal);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pgssoft.httpclient.internal.rule;
+
+import com.pgssoft.httpclient.internal.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of rule recorded while metrics are on: how many times rule was evaluated with and without match, how long
+ * evaluation took and how long producing response took.
+ */
+public final class RuleStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Histogram matchingTime = new Histogram();
+    private final Histogram productionTime = new Histogram();
+
+    void recordMatching(boolean matched, long nanos) {
+        (matched ? hits : misses).increment();
+        matchingTime.record(nanos);
+    }
+
+    void recordProduction(long nanos) {
+        productionTime.record(nanos);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public Histogram matchingTime() {
+        return matchingTime;
+    }
+
+    public Histogram productionTime() {
+        return productionTime;
+    }
+}
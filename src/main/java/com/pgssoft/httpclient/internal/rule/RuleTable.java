@@ -0,0 +1,66 @@
+package com.pgssoft.httpclient.internal.rule;
+
+import java.util.List;
+
+/**
+ * Immutable, versioned snapshot of compiled rules. New rules never modify existing table, they produce next version of
+ * it. Table which has rules defined or changed after it was compiled is marked as stale, so readers know they have to
+ * compile it.
+ */
+public final class RuleTable {
+
+    public static final RuleTable EMPTY = new RuleTable(0, new RuleIndex(List.of()), false);
+
+    private final long version;
+    private final RuleIndex index;
+    private final boolean stale;
+
+    private RuleTable(long version, RuleIndex index, boolean stale) {
+        this.version = version;
+        this.index = index;
+        this.stale = stale;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public RuleIndex getIndex() {
+        return index;
+    }
+
+    public List<Rule> getRules() {
+        return index.getRules();
+    }
+
+    /**
+     * Checks if there are rules defined after this table was compiled.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Returns copy of this table marked as stale.
+     */
+    public RuleTable markStale() {
+        return stale ? this : new RuleTable(version, index, true);
+    }
+
+    /**
+     * Compiles next version of table containing provided rules.
+     *
+     * @param rules rules in order of definition
+     * @return new table
+     */
+    public RuleTable next(List<Rule> rules) {
+        return new RuleTable(version + 1, new RuleIndex(rules), false);
+    }
+
+    /**
+     * Returns next version of table without any rules.
+     */
+    public RuleTable cleared() {
+        return new RuleTable(version + 1, new RuleIndex(List.of()), false);
+    }
+}
@@ -0,0 +1,304 @@
+package com.pgssoft.httpclient.internal.rulefile;
+
+import com.pgssoft.httpclient.ResponseSequencing;
+import com.pgssoft.httpclient.internal.action.SetBodyBytesAction;
+import com.pgssoft.httpclient.internal.action.SetBodyStringAction;
+import com.pgssoft.httpclient.internal.action.SetDelayAction;
+import com.pgssoft.httpclient.internal.action.SetHeaderAction;
+import com.pgssoft.httpclient.internal.action.SetStatusAction;
+import com.pgssoft.httpclient.internal.condition.BodyCondition;
+import com.pgssoft.httpclient.internal.condition.HeaderCondition;
+import com.pgssoft.httpclient.internal.json.JsonReader;
+import com.pgssoft.httpclient.internal.rule.Rule;
+import com.pgssoft.httpclient.internal.rule.RuleBuilder;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles rules from JSON rule file. File holds array of rules, or single rule object:
+ * <pre>
+ * {
+ *   "method": "GET",
+ *   "url": "/users?page=2",
+ *   "headers": {"Accept": "application/json"},
+ *   "parameters": {"sort": "name"},
+ *   "body": {"contains": "john"},
+ *   "sequencing": "CYCLIC",
+ *   "responses": [
+ *     {"status": 200, "headers": {"Content-Type": "application/json"}, "bodyFile": "users.json"},
+ *     {"status": 503, "body": "try later", "delayMillis": 100}
+ *   ]
+ * }
+ * </pre>
+ * Only method is required. Body condition is exact text, or object with one of "equalTo", "contains" or "matches"
+ * (regular expression). Paths of body files are resolved against directory of rule file, and files are read to heap
+ * when rule file is compiled, so body files can be changed on disk while compiled rules are in use.
+ */
+final class RuleFileParser {
+
+    private final Path file;
+    private final String host;
+    private final JsonReader reader;
+    private int ruleNumber;
+
+    private RuleFileParser(Path file, String host, ByteBuffer json) {
+        this.file = file;
+        this.host = host;
+        this.reader = new JsonReader(json);
+    }
+
+    /**
+     * @param file rule file
+     * @param host default host of URLs starting with "/"
+     * @return compiled rules in order of definition
+     * @throws IOException              when file can't be read
+     * @throws IllegalArgumentException when file is not valid rule file
+     */
+    static List<Rule> parse(Path file, String host) throws IOException {
+        final RuleFileParser parser = new RuleFileParser(file, host, ByteBuffer.wrap(Files.readAllBytes(file)));
+        try {
+            return parser.rules();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid rule file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private List<Rule> rules() throws IOException {
+        final List<Rule> rules = new ArrayList<>();
+        if (reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                rules.add(rule());
+            }
+            reader.endArray();
+        } else {
+            rules.add(rule());
+        }
+        if (reader.peek() != JsonReader.Token.END_DOCUMENT) {
+            throw new IllegalArgumentException("unexpected content after rules");
+        }
+        return rules;
+    }
+
+    private Rule rule() throws IOException {
+        ruleNumber++;
+        String method = null;
+        String url = null;
+        final List<String[]> headers = new ArrayList<>();
+        final List<String[]> parameters = new ArrayList<>();
+        Matcher<String> body = null;
+        ResponseSequencing sequencing = ResponseSequencing.REPEAT_LAST;
+        final List<ResponseDefinition> responses = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "method":
+                    method = reader.nextString().toUpperCase(Locale.ROOT);
+                    break;
+                case "url":
+                    url = reader.nextString();
+                    break;
+                case "headers":
+                    headers.addAll(stringMap());
+                    break;
+                case "parameters":
+                    parameters.addAll(stringMap());
+                    break;
+                case "body":
+                    body = bodyMatcher();
+                    break;
+                case "sequencing":
+                    sequencing = sequencing(reader.nextString());
+                    break;
+                case "response":
+                    responses.add(response());
+                    break;
+                case "responses":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        responses.add(response());
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    throw invalid("unknown field '" + name + "'");
+            }
+        }
+        reader.endObject();
+
+        if (method == null) {
+            throw invalid("method is required");
+        }
+        final RuleBuilder builder = url == null ? new RuleBuilder(method) : new RuleBuilder(method, host, url);
+        headers.forEach(header -> builder.addCondition(new HeaderCondition(header[0], Matchers.equalTo(header[1]))));
+        parameters.forEach(parameter -> builder.setParameterCondition(parameter[0], Matchers.equalTo(parameter[1])));
+        if (body != null) {
+            builder.addCondition(new BodyCondition(body));
+        }
+        builder.setSequencing(sequencing);
+        if (responses.isEmpty()) {
+            responses.add(new ResponseDefinition());
+        }
+        for (ResponseDefinition response : responses) {
+            response.addTo(builder);
+        }
+        return builder.build();
+    }
+
+    private Matcher<String> bodyMatcher() {
+        if (reader.peek() == JsonReader.Token.STRING) {
+            return Matchers.equalTo(reader.nextString());
+        }
+        Matcher<String> matcher = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            final String value = reader.nextString();
+            switch (name) {
+                case "equalTo":
+                    matcher = Matchers.equalTo(value);
+                    break;
+                case "contains":
+                    matcher = Matchers.containsString(value);
+                    break;
+                case "matches":
+                    try {
+                        matcher = new RegexMatcher(value);
+                    } catch (PatternSyntaxException e) {
+                        throw invalid("invalid body pattern: " + e.getDescription());
+                    }
+                    break;
+                default:
+                    throw invalid("unknown body condition '" + name + "'");
+            }
+        }
+        reader.endObject();
+        if (matcher == null) {
+            throw invalid("body condition is empty");
+        }
+        return matcher;
+    }
+
+    private ResponseDefinition response() throws IOException {
+        final ResponseDefinition response = new ResponseDefinition();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "status":
+                    response.status = reader.nextNumber().intValue();
+                    break;
+                case "headers":
+                    response.headers.addAll(stringMap());
+                    break;
+                case "body":
+                    response.body = reader.nextString();
+                    break;
+                case "bodyFile":
+                    response.bodyFile = bodyFile(reader.nextString());
+                    break;
+                case "delayMillis":
+                    final long delay = reader.nextNumber().longValue();
+                    if (delay < 0) {
+                        throw invalid("delayMillis must be not negative");
+                    }
+                    response.delay = Duration.ofMillis(delay);
+                    break;
+                default:
+                    throw invalid("unknown response field '" + name + "'");
+            }
+        }
+        reader.endObject();
+        if (response.body != null && response.bodyFile != null) {
+            throw invalid("response can't have both body and bodyFile");
+        }
+        return response;
+    }
+
+    private ByteBuffer bodyFile(String path) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        final Path bodyFile = parent.resolve(path).normalize();
+        if (!Files.isRegularFile(bodyFile)) {
+            throw invalid("body file " + bodyFile + " doesn't exist");
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(bodyFile));
+    }
+
+    private List<String[]> stringMap() {
+        final List<String[]> entries = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            entries.add(new String[]{name, reader.nextString()});
+        }
+        reader.endObject();
+        return entries;
+    }
+
+    private ResponseSequencing sequencing(String name) {
+        try {
+            return ResponseSequencing.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw invalid("unknown sequencing '" + name + "'");
+        }
+    }
+
+    private IllegalArgumentException invalid(String message) {
+        return new IllegalArgumentException("rule " + ruleNumber + ": " + message);
+    }
+
+    private static final class RegexMatcher extends TypeSafeMatcher<String> {
+        private final Pattern pattern;
+
+        private RegexMatcher(String regex) {
+            this.pattern = Pattern.compile(regex);
+        }
+
+        @Override
+        protected boolean matchesSafely(String item) {
+            return pattern.matcher(item).matches();
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("a string matching ").appendValue(pattern.pattern());
+        }
+    }
+
+    private static final class ResponseDefinition {
+        private int status = 200;
+        private final List<String[]> headers = new ArrayList<>();
+        private String body;
+        private ByteBuffer bodyFile;
+        private Duration delay = Duration.ZERO;
+
+        private void addTo(RuleBuilder builder) {
+            builder.addActionBundle(new SetStatusAction(status));
+            headers.forEach(header -> builder.addAction(new SetHeaderAction(header[0], header[1])));
+            if (bodyFile != null) {
+                builder.addAction(new SetBodyBytesAction(bodyFile));
+            } else if (body != null) {
+                builder.addAction(new SetBodyStringAction(body, StandardCharsets.UTF_8));
+            }
+            if (!delay.isZero()) {
+                builder.addAction(new SetDelayAction(delay));
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.pgssoft.httpclient.internal.rulefile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Reloads rule files when anything in their directory or its subdirectories changes, so edited body files are read
+ * again too. Single rule file is watched alone, by watching only its parent directory for changes of that file.
+ * Changes are collected until directory is quiet for a moment, so file written in many steps is reloaded once.
+ * Reloading happens on daemon thread, and when it fails, previous rules are kept and failure is remembered.
+ */
+public final class RuleFileWatcher implements Closeable {
+
+    private static final long QUIET_PERIOD_MILLIS = 50;
+
+    private final RuleFiles ruleFiles;
+    private final WatchService watchService;
+    private final Path file;
+    private final Thread thread;
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile Exception lastFailure;
+
+    public RuleFileWatcher(RuleFiles ruleFiles) throws IOException {
+        this.ruleFiles = ruleFiles;
+        final Path path = ruleFiles.path().toAbsolutePath();
+        this.file = Files.isDirectory(path) ? null : path.getFileName();
+        this.watchService = path.getFileSystem().newWatchService();
+        try {
+            if (file == null) {
+                registerTree(path);
+            } else {
+                register(path.getParent());
+            }
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.thread = new Thread(this::watch, "httpclientmock-rule-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @return number of successful reloads
+     */
+    public long reloads() {
+        return reloads.get();
+    }
+
+    /**
+     * @return failure of the last reload, or null if it succeeded
+     */
+    public Exception lastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                do {
+                    changed |= handleEvents(key);
+                    key.reset();
+                    key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // watcher closed
+        }
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path subdirectory : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                register(subdirectory);
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Registers directories created in watched tree, and checks if events concern rule files.
+     *
+     * @return true if rule files should be reloaded
+     */
+    private boolean handleEvents(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+                continue;
+            }
+            final Path name = (Path) event.context();
+            if (file != null) {
+                changed |= file.equals(name);
+                continue;
+            }
+            changed = true;
+            final Path created = ((Path) key.watchable()).resolve(name);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(created)) {
+                try {
+                    registerTree(created);
+                } catch (IOException e) {
+                    lastFailure = e;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            ruleFiles.reload();
+            lastFailure = null;
+            reloads.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            lastFailure = e;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.pgssoft.httpclient.internal.rulefile;
+
+import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.rule.Rule;
+import com.pgssoft.httpclient.internal.rule.RuleIndex;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rules compiled from JSON rule file, or from all "*.json" files of directory, in order of file names. Files are
+ * compiled in parallel into {@link RuleIndex}, which is used as condition and action of single rule of mock.
+ * <p>
+ * Reloading compiles files into new index and publishes it with single volatile write, so requests handled at the
+ * same time are never blocked. Request is answered by rule of the index it was matched against.
+ */
+public final class RuleFiles implements Condition {
+
+    private static final RandomSource UNUSED_RANDOM = new RandomSource(0);
+
+    private final Path path;
+    private final String host;
+    private volatile RuleIndex index;
+
+    private RuleFiles(Path path, String host) {
+        this.path = path;
+        this.host = host;
+    }
+
+    /**
+     * @param path rule file or directory of rule files
+     * @param host default host of rule URLs starting with "/"
+     * @return compiled rules
+     * @throws IOException              when files can't be read
+     * @throws IllegalArgumentException when some file is not valid rule file
+     */
+    public static RuleFiles load(Path path, String host) throws IOException {
+        final RuleFiles ruleFiles = new RuleFiles(path, host);
+        ruleFiles.reload();
+        return ruleFiles;
+    }
+
+    /**
+     * Compiles files again and replaces rules with new ones. When compilation fails, current rules are kept. Reloads
+     * are serialized, so rules compiled earlier never replace rules compiled later.
+     *
+     * @throws IOException              when files can't be read
+     * @throws IllegalArgumentException when some file is not valid rule file
+     */
+    public synchronized void reload() throws IOException {
+        final List<Object> compiled = files().parallelStream()
+                .map(this::compile)
+                .collect(Collectors.toList());
+        final List<Rule> rules = new ArrayList<>();
+        for (Object result : compiled) {
+            if (result instanceof IOException) {
+                throw (IOException) result;
+            }
+            if (result instanceof RuntimeException) {
+                throw (RuntimeException) result;
+            }
+            @SuppressWarnings("unchecked")
+            final List<Rule> fileRules = (List<Rule>) result;
+            rules.addAll(fileRules);
+        }
+        index = new RuleIndex(rules);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * @return currently used rules
+     */
+    public List<Rule> rules() {
+        return index.getRules();
+    }
+
+    private List<Path> files() throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json") && Files.isRegularFile(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns rules of file, or exception thrown while compiling it, so failure of the first failing file is reported
+     * no matter which file failed first in time.
+     */
+    private Object compile(Path file) {
+        try {
+            return RuleFileParser.parse(file, host);
+        } catch (IOException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Override
+    public boolean matches(HttpRequest request) {
+        return matches(new RequestContext(request));
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        return find(toRequestContext(context)).isPresent();
+    }
+
+    @Override
+    public String getDebugMessage() {
+        return "request matches rule of rule files " + path;
+    }
+
+    /**
+     * @return action producing response of rule which matched handled request
+     */
+    public Action action() {
+        return responseBuilder -> {
+            final MatchContext request = responseBuilder.request()
+                    .orElseThrow(() -> new IllegalStateException("Rule file response can be produced only for handled request"));
+            final RequestContext context = toRequestContext(request);
+            final Rule rule = find(context)
+                    .orElseThrow(() -> new IllegalStateException("No rule in rule files for request: " + context.uri()));
+            final MockedServerResponse response = rule.produceResponse(context, UNUSED_RANDOM);
+            responseBuilder.setStatusCode(response.statusCode());
+            response.headers().forEach((name, values) -> values.forEach(value -> responseBuilder.addHeader(name, value)));
+            responseBuilder.setBodyBytes(response.getBodyBytes());
+            responseBuilder.setDelay(response.delay());
+        };
+    }
+
+    /**
+     * Finds rule matching request once per request, so condition and action use the same rule even when rules are
+     * reloaded in between.
+     */
+    private Optional<Rule> find(RequestContext context) {
+        return context.attribute(this, c -> index.findLast(c));
+    }
+
+    private static RequestContext toRequestContext(MatchContext context) {
+        return context instanceof RequestContext ? (RequestContext) context : new RequestContext(context.request());
+    }
+}
@@ -0,0 +1,241 @@
+package com.pgssoft.httpclient.internal.snapshot;
+
+import com.pgssoft.httpclient.Action;
+import com.pgssoft.httpclient.Condition;
+import com.pgssoft.httpclient.MatchContext;
+import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.ResponseSequencing;
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.action.SetBandwidthAction;
+import com.pgssoft.httpclient.internal.action.SetBodyBytesAction;
+import com.pgssoft.httpclient.internal.action.SetChunkSizeAction;
+import com.pgssoft.httpclient.internal.action.SetDelayAction;
+import com.pgssoft.httpclient.internal.action.SetHeaderAction;
+import com.pgssoft.httpclient.internal.action.SetStatusAction;
+import com.pgssoft.httpclient.internal.rule.Rule;
+import com.pgssoft.httpclient.internal.rule.RuleBuilder;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Rules loaded from memory-mapped snapshot file. Loading only checks header of file, rules are found by probing key
+ * table of file with method, scheme, host, port and path of request. Rule with its responses is built when request
+ * with its key is handled for the first time, and bodies are slices of mapped file, so they are never copied into
+ * heap.
+ * <p>
+ * Snapshot is used as condition and action of single rule, so the latest defined matching rule of snapshot is chosen
+ * the same way as if rules were defined one by one.
+ */
+public final class RuleSnapshot implements Condition {
+
+    private static final RandomSource UNUSED_RANDOM = new RandomSource(0);
+    private static final int[] NO_RULES = new int[0];
+
+    private final ByteBuffer buffer;
+    private final int tableStart;
+    private final int tableSize;
+    private final Map<String, int[]> rulesByKey = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Rule> rules;
+
+    private RuleSnapshot(ByteBuffer buffer, Path file) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < SnapshotFormat.HEADER_LENGTH || buffer.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a rule snapshot file: " + file);
+        }
+        if (buffer.getShort(4) != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported rule snapshot version " + buffer.getShort(4) + ": " + file);
+        }
+        final int count = buffer.getInt(6);
+        this.tableSize = buffer.getInt(10);
+        this.tableStart = SnapshotFormat.HEADER_LENGTH + 4 * count;
+        if (count < 0 || Integer.bitCount(tableSize) != 1
+                || buffer.limit() < tableStart + (long) SnapshotFormat.SLOT_LENGTH * tableSize) {
+            throw new IOException("Corrupted rule snapshot file: " + file);
+        }
+        this.rules = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Maps snapshot file into memory.
+     *
+     * @param file snapshot file written by {@link RuleSnapshotWriter}
+     * @return loaded snapshot
+     * @throws IOException when file can't be read or is not a snapshot file
+     */
+    public static RuleSnapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Rule snapshot larger than 2 GB can't be mapped: " + file);
+            }
+            return new RuleSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        }
+    }
+
+    @Override
+    public boolean matches(HttpRequest request) {
+        return matches(new RequestContext(request));
+    }
+
+    @Override
+    public boolean matches(MatchContext context) {
+        return find(toRequestContext(context)) != null;
+    }
+
+    @Override
+    public String getDebugMessage() {
+        return "request matches rule of snapshot";
+    }
+
+    /**
+     * @return action producing response of the last rule of snapshot matching handled request
+     */
+    public Action action() {
+        return responseBuilder -> {
+            final RequestContext context = toRequestContext(responseBuilder.request()
+                    .orElseThrow(() -> new IllegalStateException("Snapshot response can be produced only for handled request")));
+            final Rule rule = find(context);
+            if (rule == null) {
+                throw new IllegalStateException("No snapshot rule for request: " + context.uri());
+            }
+            final MockedServerResponse response = rule.produceResponse(context, UNUSED_RANDOM);
+            responseBuilder.setStatusCode(response.statusCode());
+            response.headers().forEach((name, values) -> values.forEach(value -> responseBuilder.addHeader(name, value)));
+            responseBuilder.setBodyBytes(response.getBodyBytes());
+            responseBuilder.setDelay(response.delay());
+            responseBuilder.setBandwidth(response.bandwidth());
+            responseBuilder.setChunkSize(response.chunkSize());
+        };
+    }
+
+    private Rule find(RequestContext context) {
+        final int[] candidates = candidates(SnapshotFormat.key(context.method(), context.uri()));
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            final Rule rule = rule(candidates[i]);
+            if (rule.matches(context)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns indices of rules with provided key. Keys found in key table are cached, keys of unmatched requests are
+     * not, so they can't grow the cache.
+     */
+    private int[] candidates(String key) {
+        final int[] cached = rulesByKey.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final int[] found = probe(key);
+        if (found.length > 0) {
+            rulesByKey.put(key, found);
+        }
+        return found;
+    }
+
+    private int[] probe(String key) {
+        final int hash = SnapshotFormat.hash(key);
+        byte[] keyBytes = null;
+        int slot = hash & (tableSize - 1);
+        while (true) {
+            final int position = tableStart + slot * SnapshotFormat.SLOT_LENGTH;
+            final int entry = buffer.getInt(position + 4);
+            if (entry == 0) {
+                return NO_RULES;
+            }
+            if (buffer.getInt(position) == hash) {
+                if (keyBytes == null) {
+                    keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                }
+                if (keyEquals(entry, keyBytes)) {
+                    final ByteBuffer reader = buffer.duplicate();
+                    reader.position(entry + 4 + keyBytes.length);
+                    final int[] indices = new int[reader.getInt()];
+                    for (int i = 0; i < indices.length; i++) {
+                        indices[i] = reader.getInt();
+                    }
+                    return indices;
+                }
+            }
+            slot = (slot + 1) & (tableSize - 1);
+        }
+    }
+
+    private boolean keyEquals(int entry, byte[] keyBytes) {
+        if (buffer.getInt(entry) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (buffer.get(entry + 4 + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Rule rule(int index) {
+        final Rule existing = rules.get(index);
+        if (existing != null) {
+            return existing;
+        }
+        rules.compareAndSet(index, null, buildRule(index));
+        return rules.get(index);
+    }
+
+    private Rule buildRule(int index) {
+        final ByteBuffer reader = buffer.duplicate();
+        reader.position(buffer.getInt(SnapshotFormat.HEADER_LENGTH + 4 * index));
+        final String method = readString(reader);
+        final String url = readString(reader);
+        final RuleBuilder builder = new RuleBuilder(method, "", url);
+        builder.setSequencing(ResponseSequencing.values()[reader.get()]);
+        final int responses = reader.getInt();
+        for (int i = 0; i < responses; i++) {
+            builder.addActionBundle(new SetStatusAction(reader.getInt()));
+            final long delay = reader.getLong();
+            if (delay > 0) {
+                builder.addAction(new SetDelayAction(Duration.ofNanos(delay)));
+            }
+            final long bandwidth = reader.getLong();
+            if (bandwidth > 0) {
+                builder.addAction(new SetBandwidthAction(bandwidth));
+            }
+            builder.addAction(new SetChunkSizeAction(reader.getInt()));
+            final int headers = reader.getInt();
+            for (int h = 0; h < headers; h++) {
+                final String name = readString(reader);
+                final int values = reader.getInt();
+                for (int v = 0; v < values; v++) {
+                    builder.addAction(new SetHeaderAction(name, readString(reader)));
+                }
+            }
+            final int bodyLength = reader.getInt();
+            final ByteBuffer body = reader.slice().limit(bodyLength);
+            reader.position(reader.position() + bodyLength);
+            builder.addAction(new SetBodyBytesAction(body));
+        }
+        return builder.build();
+    }
+
+    private static RequestContext toRequestContext(MatchContext context) {
+        return context instanceof RequestContext ? (RequestContext) context : new RequestContext(context.request());
+    }
+
+    private static String readString(ByteBuffer reader) {
+        final byte[] bytes = new byte[reader.getInt()];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
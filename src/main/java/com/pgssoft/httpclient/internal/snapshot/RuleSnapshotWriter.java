@@ -0,0 +1,181 @@
+package com.pgssoft.httpclient.internal.snapshot;
+
+import com.pgssoft.httpclient.MockedServerResponse;
+import com.pgssoft.httpclient.internal.action.ActionBundle;
+import com.pgssoft.httpclient.internal.rule.Rule;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rules to snapshot file read by {@link RuleSnapshot}. Only rules fully described by method, URL and static
+ * responses can be written. Rule records are streamed to file, and their offsets are filled in at the end.
+ */
+public final class RuleSnapshotWriter {
+
+    private RuleSnapshotWriter() {
+    }
+
+    /**
+     * @throws IllegalStateException when some rule can't be exported
+     * @throws IOException           when file can't be written or would exceed 2 GB
+     */
+    public static void write(List<Rule> rules, Path file) throws IOException {
+        final Map<String, List<Integer>> rulesByKey = new LinkedHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            final Rule rule = checkExportable(rules.get(i), i);
+            rulesByKey.computeIfAbsent(SnapshotFormat.key(rule.getMethod(), rule.getLiteralUrl()), k -> new ArrayList<>())
+                    .add(i);
+        }
+        final int tableSize = SnapshotFormat.tableSize(rulesByKey.size());
+        final long tableStart = SnapshotFormat.HEADER_LENGTH + 4L * rules.size();
+        final long keysStart = tableStart + (long) SnapshotFormat.SLOT_LENGTH * tableSize;
+
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try (channel) {
+            final ByteBuffer table = ByteBuffer.allocate(SnapshotFormat.SLOT_LENGTH * tableSize);
+            final CountingOutputStream counter = new CountingOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel.position(keysStart))));
+            final DataOutputStream output = new DataOutputStream(counter);
+            for (Map.Entry<String, List<Integer>> entry : rulesByKey.entrySet()) {
+                addToTable(table, tableSize, entry.getKey(), checkedOffset(keysStart + counter.count, file));
+                writeString(entry.getKey(), output);
+                output.writeInt(entry.getValue().size());
+                for (int index : entry.getValue()) {
+                    output.writeInt(index);
+                }
+            }
+
+            final ByteBuffer offsets = ByteBuffer.allocate(4 * rules.size());
+            for (Rule rule : rules) {
+                offsets.putInt(checkedOffset(keysStart + counter.count, file));
+                writeRule(rule, output);
+            }
+            checkedOffset(keysStart + counter.count, file);
+            output.flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_LENGTH);
+            header.putInt(SnapshotFormat.MAGIC)
+                    .putShort(SnapshotFormat.VERSION)
+                    .putInt(rules.size())
+                    .putInt(tableSize);
+            writeFully(channel, header.flip(), 0);
+            writeFully(channel, offsets.flip(), SnapshotFormat.HEADER_LENGTH);
+            writeFully(channel, table.rewind(), tableStart);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static Rule checkExportable(Rule rule, int index) {
+        if (rule.getLiteralUrl() == null || rule.getMethod() == null) {
+            throw notExportable(rule, index, "it has conditions other than method and URL");
+        }
+        for (ActionBundle bundle : rule.getActionBundles()) {
+            final MockedServerResponse response = bundle.template();
+            if (response == null || response.getBodyStream().isPresent()) {
+                throw notExportable(rule, index, "it has dynamic or streamed responses");
+            }
+        }
+        return rule;
+    }
+
+    private static void addToTable(ByteBuffer table, int tableSize, String key, int entryOffset) {
+        final int hash = SnapshotFormat.hash(key);
+        int slot = hash & (tableSize - 1);
+        while (table.getInt(slot * SnapshotFormat.SLOT_LENGTH + 4) != 0) {
+            slot = (slot + 1) & (tableSize - 1);
+        }
+        table.putInt(slot * SnapshotFormat.SLOT_LENGTH, hash);
+        table.putInt(slot * SnapshotFormat.SLOT_LENGTH + 4, entryOffset);
+    }
+
+    private static void writeRule(Rule rule, DataOutputStream output) throws IOException {
+        writeString(rule.getMethod(), output);
+        writeString(rule.getLiteralUrl(), output);
+        output.writeByte(rule.getSequencing().ordinal());
+        final List<ActionBundle> bundles = rule.getActionBundles();
+        output.writeInt(bundles.size());
+        for (ActionBundle bundle : bundles) {
+            writeResponse(bundle.template(), output);
+        }
+    }
+
+    private static void writeResponse(MockedServerResponse response, DataOutputStream output) throws IOException {
+        output.writeInt(response.statusCode());
+        output.writeLong(response.delay().toNanos());
+        output.writeLong(response.bandwidth());
+        output.writeInt(response.chunkSize());
+        output.writeInt(response.headers().size());
+        for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+            writeString(header.getKey(), output);
+            output.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                writeString(value, output);
+            }
+        }
+        final ByteBuffer body = response.getBodyBytes();
+        output.writeInt(body.remaining());
+        Channels.newChannel(output).write(body);
+    }
+
+    private static void writeString(String value, DataOutputStream output) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int checkedOffset(long offset, Path file) throws IOException {
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Rule snapshot " + file + " would exceed 2 GB, which is the limit of memory-mapped snapshot");
+        }
+        return (int) offset;
+    }
+
+    private static IllegalStateException notExportable(Rule rule, int index, String reason) {
+        return new IllegalStateException(String.format("Rule %d (%s) can't be exported to snapshot, because %s.",
+                index + 1, rule.describe(), reason));
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
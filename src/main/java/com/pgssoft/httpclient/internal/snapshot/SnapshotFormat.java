@@ -0,0 +1,62 @@
+package com.pgssoft.httpclient.internal.snapshot;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Layout of rule snapshot file. File starts with magic number, version, number of rules and size of key table,
+ * followed by table of rule record offsets, key table, key entries and rule records. Numbers are big-endian and
+ * strings are stored as length and UTF-8 bytes.
+ * <p>
+ * Key table is open addressing hash table with linear probing. Its slot holds hash of key and offset of key entry,
+ * 0 for empty slot. Key entry holds key and indices of rules with that key, in order of definition. Rule record holds
+ * method and URL of rule, then sequencing and its responses: status, delay, bandwidth, chunk size, headers and body.
+ * <p>
+ * Whole file is memory-mapped, so it must not exceed 2 GB.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x48434D53;
+    static final short VERSION = 2;
+    static final int HEADER_LENGTH = 4 + 2 + 4 + 4;
+    static final int SLOT_LENGTH = 8;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Returns key under which rule with provided method and URL is indexed. Rules defined with URL compare scheme,
+     * host, port and path of request with literal values, so they can match only requests with the same key.
+     */
+    static String key(String method, URI uri) {
+        return method + ' ' + nullToEmpty(uri.getScheme()) + "://" + nullToEmpty(uri.getHost()) + ':' + uri.getPort()
+                + nullToEmpty(uri.getPath());
+    }
+
+    static String key(String method, String url) {
+        try {
+            return key(method, new URI(url.replace("{", "%7B").replace("}", "%7D")));
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Returns hash of key stored in key table. String hash code is specified by Java, so it is stable between JVMs.
+     */
+    static int hash(String key) {
+        final int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns number of key table slots for provided number of keys, power of two at most half full.
+     */
+    static int tableSize(int keys) {
+        return Integer.highestOneBit(Math.max(1, keys) * 4 - 1);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
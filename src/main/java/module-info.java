@@ -1,5 +1,6 @@
 module com.pgssoft.httpclient {
     requires java.net.http;
+    requires static jdk.jfr;
     requires hamcrest.all;
 
     exports com.pgssoft.httpclient;
@@ -0,0 +1,58 @@
+package com.pgssoft.httpclient;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.pgssoft.httpclient.TestRequests.get;
+import static java.net.http.HttpResponse.BodyHandlers.ofString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlightRecorderEventsTest {
+
+    @Test
+    void should_emit_events_for_matched_and_unmatched_requests() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/login").doReturn("ok");
+        httpClientMock.onGet("/logout").doReturn(202, "bye");
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.pgssoft.httpclient.RuleMatch");
+            recording.enable("com.pgssoft.httpclient.NoMatchingRule");
+            recording.enable("com.pgssoft.httpclient.ResponseProduced");
+            recording.enable("com.pgssoft.httpclient.BodyDelivered");
+            recording.start();
+            httpClientMock.send(get("http://localhost/logout"), ofString());
+            assertThrows(IllegalStateException.class, () -> httpClientMock.send(get("http://localhost/other"), ofString()));
+            recording.stop();
+
+            Path file = Files.createTempFile("events", ".jfr");
+            file.toFile().deleteOnExit();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        Map<String, RecordedEvent> byName = events.stream()
+                .collect(Collectors.toMap(e -> e.getEventType().getName(), Function.identity()));
+        RecordedEvent match = byName.get("com.pgssoft.httpclient.RuleMatch");
+        assertThat(match.getString("uri"), equalTo("http://localhost/logout"));
+        assertThat(match.getInt("ruleIndex"), equalTo(1));
+        assertThat(match.getInt("candidates"), equalTo(1));
+        assertThat(byName.get("com.pgssoft.httpclient.ResponseProduced").getInt("statusCode"), equalTo(202));
+        assertThat(byName.get("com.pgssoft.httpclient.BodyDelivered").getLong("bytes"), equalTo(3L));
+        RecordedEvent noMatch = byName.get("com.pgssoft.httpclient.NoMatchingRule");
+        assertThat(noMatch.getString("method"), equalTo("GET"));
+        assertThat(noMatch.getInt("rules"), equalTo(2));
+    }
+}
@@ -2,14 +2,24 @@ package com.pgssoft.httpclient;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.net.http.HttpRequest.BodyPublishers.noBody;
 import static java.net.http.HttpRequest.newBuilder;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpClientMockAsyncTest {
 
@@ -32,5 +42,37 @@ class HttpClientMockAsyncTest {
         httpClientMock.verify().post("http://localhost/login");
     }
 
+    @Test
+    void sendAsync_Should_CompleteOnProvidedExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost", executor);
+        final List<Thread> threads = new ArrayList<>();
+        httpClientMock.onGet("/login")
+                .doAction(response -> threads.add(Thread.currentThread()))
+                .withStatus(200);
+
+        var res = httpClientMock.sendAsync(TestRequests.get("http://localhost/login"), HttpResponse.BodyHandlers.discarding());
+
+        assertThat(res.get().statusCode(), equalTo(200));
+        assertThat(httpClientMock.executor(), equalTo(Optional.of(executor)));
+        assertThat(threads.size(), equalTo(1));
+        assertThat(threads.get(0), not(equalTo(Thread.currentThread())));
+        executor.shutdown();
+    }
+
+    @Test
+    void sendAsync_Should_CompleteExceptionally_When_AsyncActionThrows() {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.asyncOn();
+        httpClientMock.onGet("/login").doThrowException(new IOException("failed"));
+
+        var res = httpClientMock.sendAsync(TestRequests.get("http://localhost/login"), HttpResponse.BodyHandlers.discarding());
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, res::get);
+        assertThat(exception.getCause(), instanceOf(IOException.class));
+        assertTrue(httpClientMock.executor().isPresent());
+        httpClientMock.asyncOff();
+        assertTrue(httpClientMock.executor().isEmpty());
+    }
 
 }
@@ -10,6 +10,13 @@ import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static com.pgssoft.httpclient.TestRequests.get;
 import static com.pgssoft.httpclient.TestRequests.post;
@@ -200,6 +207,20 @@ class HttpClientMockBuilderTest {
         MatcherAssert.assertThat(two, HttpResponseMatchers.hasContent("two"));
     }
 
+    @Test
+    void should_match_percent_encoded_parameter_value() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost:8080");
+
+        httpClientMock.onGet("/foo").withParameter("q", "a&b").doReturn("decoded");
+        httpClientMock.onGet("/bar?name=J%C3%B3zef").doReturn("encoded rule");
+
+        final var foo = httpClientMock.send(get("http://localhost:8080/foo?q=a%26b"), ofString());
+        final var bar = httpClientMock.send(get("http://localhost:8080/bar?name=J%C3%B3zef"), ofString());
+
+        MatcherAssert.assertThat(foo, HttpResponseMatchers.hasContent("decoded"));
+        MatcherAssert.assertThat(bar, HttpResponseMatchers.hasContent("encoded rule"));
+    }
+
     @Test
     void should_add_default_host_to_every_relative_path() throws Exception {
         HttpClientMock httpClientMock = new HttpClientMock("http://localhost:8080");
@@ -233,6 +254,144 @@ class HttpClientMockBuilderTest {
         MatcherAssert.assertThat(badLogin, HttpResponseMatchers.hasStatus(500));
     }
 
+    @Test
+    void should_read_request_body_once_for_all_rules() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost:8080");
+
+        httpClientMock.onPost("/login").withBody(containsString("foo")).doReturnStatus(200);
+        httpClientMock.onPost("/login").withBody(containsString("bar")).doReturnStatus(300);
+        httpClientMock.onPost("/login").withBody(containsString("baz")).doReturnStatus(400);
+
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final var body = HttpRequest.BodyPublishers.ofString("foo");
+        final var countingBody = new HttpRequest.BodyPublisher() {
+            @Override
+            public long contentLength() {
+                return body.contentLength();
+            }
+
+            @Override
+            public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+                subscriptions.incrementAndGet();
+                body.subscribe(subscriber);
+            }
+        };
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost:8080/login")).POST(countingBody).build(), discarding());
+
+        MatcherAssert.assertThat(response, HttpResponseMatchers.hasStatus(200));
+        MatcherAssert.assertThat(subscriptions.get(), equalTo(1));
+    }
+
+    @Test
+    void should_match_body_delivered_in_many_direct_chunks() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onPost("/upload").withBody(equalTo("first-second-third")).doReturnStatus(200);
+
+        final var chunks = List.of("first-", "second-", "third").stream()
+                .map(chunk -> ByteBuffer.allocateDirect(chunk.length()).put(chunk.getBytes()).flip())
+                .collect(Collectors.toList());
+        final HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(subscriber ->
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    private int next;
+
+                    @Override
+                    public void request(long n) {
+                        for (long i = 0; i < n && next < chunks.size(); i++) {
+                            subscriber.onNext(chunks.get(next++));
+                        }
+                        if (next == chunks.size()) {
+                            next++;
+                            subscriber.onComplete();
+                        }
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                }));
+
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost/upload")).POST(body).build(), discarding());
+
+        MatcherAssert.assertThat(response, HttpResponseMatchers.hasStatus(200));
+    }
+
+    @Test
+    void should_match_body_bytes() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final byte[] upload = new byte[1024 * 1024];
+        new Random(1).nextBytes(upload);
+        final String digest = toHex(MessageDigest.getInstance("SHA-256").digest(upload));
+
+        httpClientMock.onPost("/upload").withBodyBytes(BodyMatchers.startsWithBytes("--boundary")).doReturnStatus(201);
+        httpClientMock.onPost("/upload").withBodyBytes(BodyMatchers.hasDigest("SHA-256", digest)).doReturnStatus(202);
+        httpClientMock.onPost("/upload").withBodyBytes(BodyMatchers.equalToBytes(new byte[]{1, 2, 3})).doReturnStatus(203);
+        httpClientMock.onPost("/upload").withBodyBytes(BodyMatchers.containsBytes("name=\"file\"")).doReturnStatus(204);
+
+        final var multipart = httpClientMock.send(newBuilder(URI.create("http://localhost/upload"))
+                .POST(HttpRequest.BodyPublishers.ofString("--boundary\r\nContent-Disposition: form-data")).build(), discarding());
+        final var hashed = httpClientMock.send(newBuilder(URI.create("http://localhost/upload"))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(upload)).build(), discarding());
+        final var exact = httpClientMock.send(newBuilder(URI.create("http://localhost/upload"))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[]{1, 2, 3})).build(), discarding());
+        final var contained = httpClientMock.send(newBuilder(URI.create("http://localhost/upload"))
+                .POST(HttpRequest.BodyPublishers.ofString("Content-Disposition: form-data; name=\"file\"")).build(), discarding());
+
+        MatcherAssert.assertThat(multipart, HttpResponseMatchers.hasStatus(201));
+        MatcherAssert.assertThat(hashed, HttpResponseMatchers.hasStatus(202));
+        MatcherAssert.assertThat(exact, HttpResponseMatchers.hasStatus(203));
+        MatcherAssert.assertThat(contained, HttpResponseMatchers.hasStatus(204));
+        httpClientMock.verify().post("/upload").withBodyBytes(BodyMatchers.hasDigest("SHA-256", digest)).called();
+    }
+
+    @Test
+    void should_match_json_path() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onPost("/orders").withJsonPath("$.customer.country", equalTo("PL")).doReturnStatus(201);
+        httpClientMock.onPost("/orders").withJsonPath("$.items[0].quantity", equalTo(0)).doReturnStatus(400);
+
+        final var accepted = httpClientMock.send(newBuilder(URI.create("http://localhost/orders"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"customer\": {\"country\": \"PL\"}, \"items\": [{\"quantity\": 2}]}")).build(), discarding());
+        final var rejected = httpClientMock.send(newBuilder(URI.create("http://localhost/orders"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"customer\": {\"country\": \"PL\"}, \"items\": [{\"quantity\": 0}]}")).build(), discarding());
+        assertThrows(IllegalStateException.class, () -> httpClientMock.send(newBuilder(URI.create("http://localhost/orders"))
+                .POST(HttpRequest.BodyPublishers.ofString("not json")).build(), discarding()));
+
+        MatcherAssert.assertThat(accepted, HttpResponseMatchers.hasStatus(201));
+        MatcherAssert.assertThat(rejected, HttpResponseMatchers.hasStatus(400));
+        httpClientMock.verify().post("/orders").withJsonPath("$.items[0].quantity", equalTo(2)).called();
+        httpClientMock.verify().post("/orders").withJsonPath("$.customer", containsString("PL")).called(2);
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    @Test
+    void should_check_custom_condition_using_match_context() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+
+        httpClientMock.onGet().withPath("/foo")
+                .with(new Condition() {
+                    @Override
+                    public boolean matches(HttpRequest request) {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean matches(MatchContext context) {
+                        return context.queryParameters().containsKey("a");
+                    }
+                })
+                .doReturn("yes");
+
+        MatcherAssert.assertThat(httpClientMock.send(get("http://localhost/foo?a=1"), ofString()), HttpResponseMatchers.hasContent("yes"));
+        assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(get("http://localhost/foo?b=1"), ofString()));
+    }
+
     @Test
     void when_url_contains_parameter_it_should_be_added_us_a_separate_condition() throws Exception {
         HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
@@ -277,6 +436,71 @@ class HttpClientMockBuilderTest {
     }
 
 
+    @Test
+    void should_use_last_defined_rule_when_literal_and_matcher_rules_overlap() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+
+        httpClientMock.onGet("/foo").doReturn("literal first");
+        httpClientMock.onGet().withPath(containsString("fo")).doReturn("matcher");
+        httpClientMock.onGet("/foo").doReturn("literal last");
+        httpClientMock.onPost().doReturn("post");
+
+        final var foo = httpClientMock.send(get("http://localhost/foo"), ofString());
+        final var fooBar = httpClientMock.send(get("http://localhost/foobar"), ofString());
+        final var post = httpClientMock.send(post("http://localhost/foo"), ofString());
+
+        MatcherAssert.assertThat(foo, HttpResponseMatchers.hasContent("literal last"));
+        MatcherAssert.assertThat(fooBar, HttpResponseMatchers.hasContent("matcher"));
+        MatcherAssert.assertThat(post, HttpResponseMatchers.hasContent("post"));
+        assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(get("http://localhost/bar"), ofString()));
+    }
+
+    @Test
+    void should_match_rules_defined_after_first_request() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+
+        httpClientMock.onGet("/foo").doReturn("first");
+        final var first = httpClientMock.send(get("http://localhost/foo"), ofString());
+        httpClientMock.onGet("/foo").doReturn("second");
+        final var second = httpClientMock.send(get("http://localhost/foo"), ofString());
+
+        MatcherAssert.assertThat(first, HttpResponseMatchers.hasContent("first"));
+        MatcherAssert.assertThat(second, HttpResponseMatchers.hasContent("second"));
+    }
+
+    @Test
+    void should_match_path_template() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+
+        httpClientMock.onGet("/users/{id}/orders").doReturn("orders");
+        httpClientMock.onGet("/users/42/orders").doReturn("orders of 42");
+        httpClientMock.onGet().withPath(containsString("admin")).doReturn("admin");
+
+        final var orders = httpClientMock.send(get("http://localhost/users/7/orders"), ofString());
+        final var orders42 = httpClientMock.send(get("http://localhost/users/42/orders"), ofString());
+        final var admin = httpClientMock.send(get("http://localhost/users/admin/orders"), ofString());
+
+        MatcherAssert.assertThat(orders, HttpResponseMatchers.hasContent("orders"));
+        MatcherAssert.assertThat(orders42, HttpResponseMatchers.hasContent("orders of 42"));
+        MatcherAssert.assertThat(admin, HttpResponseMatchers.hasContent("admin"));
+        assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(get("http://localhost/users//orders"), ofString()));
+        assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(get("http://localhost/users/7/orders/1"), ofString()));
+    }
+
+    @Test
+    void should_match_literal_path_with_braces() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+
+        httpClientMock.onGet().withPath("/a/{b}").doReturn("literal");
+        httpClientMock.onGet().withPathTemplate("/c/{d}").doReturn("template");
+
+        MatcherAssert.assertThat(httpClientMock.send(get("http://localhost/a/%7Bb%7D"), ofString()),
+                HttpResponseMatchers.hasContent("literal"));
+        MatcherAssert.assertThat(httpClientMock.send(get("http://localhost/c/anything"), ofString()),
+                HttpResponseMatchers.hasContent("template"));
+        assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(get("http://localhost/a/anything"), ofString()));
+    }
+
     @Test
     void should_handle_path_with_parameters_and_reference() throws Exception {
         HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
@@ -319,6 +543,17 @@ class HttpClientMockBuilderTest {
         assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(post("http://localhost/login"), discarding()));
     }
 
+    @Test
+    void after_reset_rules_used_by_previous_calls_should_be_removed() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+
+        httpClientMock.onPost("/login").doReturnStatus(200);
+        httpClientMock.send(post("http://localhost/login"), discarding());
+        httpClientMock.reset();
+
+        assertThrows(NoMatchingRuleException.class, () -> httpClientMock.send(post("http://localhost/login"), discarding()));
+    }
+
     @Test
     void after_reset_number_of_calls_should_be_zero() throws Exception {
         HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
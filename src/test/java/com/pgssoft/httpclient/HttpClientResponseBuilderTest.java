@@ -6,13 +6,31 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.ConnectException;
 import java.net.URI;
+import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.pgssoft.httpclient.HttpResponseMatchers.hasContent;
 import static com.pgssoft.httpclient.HttpResponseMatchers.hasStatus;
@@ -21,6 +39,7 @@ import static java.net.http.HttpRequest.newBuilder;
 import static java.net.http.HttpResponse.BodyHandlers.discarding;
 import static java.net.http.HttpResponse.BodyHandlers.ofString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
@@ -70,6 +89,165 @@ class HttpClientResponseBuilderTest {
 
     }
 
+    @Test
+    void should_cycle_through_responses() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/foo")
+                .doReturn("first")
+                .doReturn("second")
+                .withSequencing(ResponseSequencing.CYCLIC);
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        assertThat(httpClientMock.send(request, ofString()), hasContent("first"));
+        assertThat(httpClientMock.send(request, ofString()), hasContent("second"));
+        assertThat(httpClientMock.send(request, ofString()), hasContent("first"));
+    }
+
+    @Test
+    void should_append_responses_to_rule_which_handled_requests() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final var rule = httpClientMock.onGet("/foo").doReturn("a");
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        assertThat(httpClientMock.send(request, ofString()), hasContent("a"));
+        rule.doReturn("b");
+        assertThat(httpClientMock.send(request, ofString()), hasContent("a"));
+        assertThat(httpClientMock.send(request, ofString()), hasContent("b"));
+        assertThat(httpClientMock.send(request, ofString()), hasContent("b"));
+    }
+
+    @Test
+    void should_apply_conditions_added_to_rule_which_handled_requests() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final var rule = httpClientMock.onGet("/foo");
+        rule.doReturn("a");
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        assertThat(httpClientMock.send(request, ofString()), hasContent("a"));
+        rule.withHeader("Accept", "text/plain");
+        assertThrows(IllegalStateException.class, () -> httpClientMock.send(request, ofString()));
+        final var accepted = newBuilder(URI.create("http://localhost/foo")).header("Accept", "text/plain").GET().build();
+        assertThat(httpClientMock.send(accepted, ofString()), hasContent("a"));
+    }
+
+    @Test
+    void should_fail_when_exhaustible_responses_are_used() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/foo")
+                .doReturn("first")
+                .doReturn("second")
+                .withSequencing(ResponseSequencing.EXHAUSTIBLE);
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        assertThat(httpClientMock.send(request, ofString()), hasContent("first"));
+        assertThat(httpClientMock.send(request, ofString()), hasContent("second"));
+        final var exception = assertThrows(IllegalStateException.class, () -> httpClientMock.send(request, ofString()));
+        assertThat(exception.getMessage(), containsString("already returned all 2 responses"));
+    }
+
+    @Test
+    void should_return_every_response_of_sequence_once_to_concurrent_requests() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final var rule = httpClientMock.onGet("/foo").doReturn("0").withSequencing(ResponseSequencing.EXHAUSTIBLE);
+        for (int i = 1; i < 1000; i++) {
+            rule.doReturn(Integer.toString(i));
+        }
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        final var executor = Executors.newFixedThreadPool(16);
+        final List<Future<String>> bodies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            bodies.add(executor.submit(() -> httpClientMock.send(request, ofString()).body()));
+        }
+        final Set<String> distinct = new HashSet<>();
+        for (var body : bodies) {
+            distinct.add(body.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1000, distinct.size());
+    }
+
+    @Test
+    void should_inject_probable_responses() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.randomSeed(1);
+        httpClientMock.onGet("/foo")
+                .doReturn("ok")
+                .doReturnWithProbability(0.2, 503, "unavailable")
+                .doThrowExceptionWithProbability(0.1, new ConnectException());
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        int ok = 0, unavailable = 0, failed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            try {
+                final var response = httpClientMock.send(request, ofString());
+                if (response.statusCode() == 503) {
+                    assertThat(response, hasContent("unavailable"));
+                    unavailable++;
+                } else {
+                    assertThat(response, hasContent("ok"));
+                    ok++;
+                }
+            } catch (ConnectException e) {
+                failed++;
+            }
+        }
+
+        assertTrue(Math.abs(unavailable - 2000) < 300, "unavailable: " + unavailable);
+        assertTrue(Math.abs(failed - 1000) < 200, "failed: " + failed);
+        assertEquals(10_000, ok + unavailable + failed);
+    }
+
+    @Test
+    void should_choose_the_same_probable_responses_for_the_same_seed() throws Exception {
+        assertEquals(statusesForSeed(42), statusesForSeed(42));
+        assertNotEquals(statusesForSeed(42), statusesForSeed(43));
+    }
+
+    private List<Integer> statusesForSeed(long seed) throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.randomSeed(seed);
+        httpClientMock.onGet("/foo").doReturn("ok").doReturnStatusWithProbability(0.5, 500);
+
+        final var request = newBuilder(URI.create("http://localhost/foo")).GET().build();
+        final List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            statuses.add(httpClientMock.send(request, discarding()).statusCode());
+        }
+        return statuses;
+    }
+
+    @Test
+    void should_report_seed_when_verification_fails() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.randomSeed(7);
+        httpClientMock.onGet("/foo").doReturn("ok").doReturnStatusWithProbability(0.5, 500);
+        httpClientMock.send(newBuilder(URI.create("http://localhost/foo")).GET().build(), discarding());
+
+        final var exception = assertThrows(IllegalStateException.class, () -> httpClientMock.verify().get("/foo").called(2));
+        assertThat(exception.getMessage(), containsString("seed 7"));
+    }
+
+    @Test
+    void should_report_seed_when_no_rule_matches() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.randomSeed(7);
+        httpClientMock.onGet("/foo").doReturn("ok").doReturnStatusWithProbability(0.5, 500);
+        httpClientMock.send(newBuilder(URI.create("http://localhost/foo")).GET().build(), discarding());
+
+        final var request = newBuilder(URI.create("http://localhost/bar")).GET().build();
+        final var exception = assertThrows(IllegalStateException.class, () -> httpClientMock.send(request, discarding()));
+        assertThat(exception.getMessage(), containsString("seed 7"));
+    }
+
+    @Test
+    void should_reject_probabilities_above_one() {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final var builder = httpClientMock.onGet("/foo").doReturn("ok").doReturnStatusWithProbability(0.6, 500);
+        assertThrows(IllegalArgumentException.class, () -> builder.doReturnStatusWithProbability(0.6, 503));
+    }
+
     @Test
     void should_support_response_in_different_charsets() throws Exception {
         HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
@@ -277,6 +455,301 @@ class HttpClientResponseBuilderTest {
         assertThat(outputString, equalTo(expectedString));
     }
 
+    @Test
+    void shouldDeliverBodyOnCallingThread() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().doReturn("expected");
+
+        final List<Thread> deliveryThreads = new ArrayList<>();
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost")).GET().build(),
+                responseInfo -> HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), bytes -> {
+                    deliveryThreads.add(Thread.currentThread());
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }));
+
+        assertThat(response.body(), equalTo("expected"));
+        assertThat(deliveryThreads, equalTo(List.of(Thread.currentThread())));
+    }
+
+    @Test
+    void shouldDeliverBodyToPublisherHandler() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().doReturn("expected");
+
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost")).GET().build(), BodyHandlers.ofPublisher());
+        final var body = HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        response.body().subscribe(body);
+
+        assertThat(body.getBody().toCompletableFuture().get(), equalTo("expected"));
+    }
+
+    @Test
+    void shouldDelayResponse() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().doReturn("expected").withDelay(Duration.ofMillis(100));
+
+        final long start = System.nanoTime();
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost")).GET().build(), ofString());
+
+        assertThat(response.body(), equalTo("expected"));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void shouldCompleteDelayedAsyncResponseWithoutBlockingCaller() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().doReturn("expected").withDelay(Duration.ofMillis(200));
+
+        final long start = System.nanoTime();
+        final var response = httpClientMock.sendAsync(newBuilder(URI.create("http://localhost")).GET().build(), ofString());
+
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(200).toNanos());
+        assertFalse(response.isDone());
+        assertThat(response.get().body(), equalTo("expected"));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void shouldUseLatencyDistribution() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final List<Duration> delays = new ArrayList<>();
+        httpClientMock.onGet().doReturn("expected").withLatencyDistribution(() -> {
+            final Duration delay = Duration.ofMillis(delays.size());
+            delays.add(delay);
+            return delay;
+        });
+
+        httpClientMock.send(newBuilder(URI.create("http://localhost")).GET().build(), ofString());
+        httpClientMock.send(newBuilder(URI.create("http://localhost")).GET().build(), ofString());
+
+        assertThat(delays, equalTo(List.of(Duration.ZERO, Duration.ofMillis(1))));
+    }
+
+    @Test
+    void shouldThrottleBodyToBandwidth() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final byte[] body = new byte[1000];
+        httpClientMock.onGet().doReturn(new String(body, StandardCharsets.ISO_8859_1)).withBandwidth(5000);
+
+        final long start = System.nanoTime();
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost")).GET().build(), BodyHandlers.ofByteArray());
+
+        assertThat(response.body().length, equalTo(1000));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(180).toNanos());
+    }
+
+    @Test
+    void shouldRejectInvalidBandwidth() {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        assertThrows(IllegalArgumentException.class, () -> httpClientMock.onGet().doReturn("a").withBandwidth(0));
+    }
+
+    @Test
+    void shouldReturnFileInSlices() throws Exception {
+        final byte[] content = new byte[5 * 1024 * 1024 + 17];
+        new Random(7).nextBytes(content);
+        final Path file = Files.write(Files.createTempFile("download", ".bin"), content);
+        final Path copy = Files.createTempFile("copy", ".bin");
+        file.toFile().deleteOnExit();
+        copy.toFile().deleteOnExit();
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/download").doReturnFile(file);
+
+        final List<Integer> sliceSizes = new ArrayList<>();
+        final var sliced = httpClientMock.send(newBuilder(URI.create("http://localhost/download")).GET().build(),
+                responseInfo -> HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), bytes -> bytes));
+        final var toFile = httpClientMock.send(newBuilder(URI.create("http://localhost/download")).GET().build(),
+                BodyHandlers.ofFile(copy));
+        final var toStream = httpClientMock.send(newBuilder(URI.create("http://localhost/download")).GET().build(),
+                BodyHandlers.ofInputStream());
+        httpClientMock.send(newBuilder(URI.create("http://localhost/download")).GET().build(),
+                responseInfo -> new HttpResponse.BodySubscriber<Void>() {
+                    @Override
+                    public CompletionStage<Void> getBody() {
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(List<ByteBuffer> item) {
+                        item.forEach(buffer -> sliceSizes.add(buffer.remaining()));
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+
+        assertArrayEquals(content, sliced.body());
+        assertArrayEquals(content, Files.readAllBytes(toFile.body()));
+        try (InputStream stream = toStream.body()) {
+            assertArrayEquals(content, stream.readAllBytes());
+        }
+        assertThat(sliceSizes.size(), equalTo(81));
+        assertThat(sliceSizes.get(0), equalTo(64 * 1024));
+        assertThat(sliceSizes.get(80), equalTo(17));
+    }
+
+    @Test
+    void shouldThrowIOExceptionWhenFileIsMissing() {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/download").doReturnFile(Path.of("missing", "download.bin"));
+
+        assertThrows(IOException.class, () -> httpClientMock.send(newBuilder(URI.create("http://localhost/download")).GET().build(), discarding()));
+    }
+
+    @Test
+    void shouldMapFileWhenFirstMatchingRequestIsHandled() throws Exception {
+        final Path directory = Files.createTempDirectory("download");
+        final Path file = Files.writeString(directory.resolve("download.txt"), "old");
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/download").doReturnFile(file);
+        httpClientMock.onGet("/other").doReturn("other");
+
+        assertThat(httpClientMock.send(newBuilder(URI.create("http://localhost/other")).GET().build(), ofString()),
+                hasContent("other"));
+        Files.move(Files.writeString(directory.resolve("new.txt"), "new"), file, StandardCopyOption.REPLACE_EXISTING);
+
+        assertThat(httpClientMock.send(newBuilder(URI.create("http://localhost/download")).GET().build(), ofString()),
+                hasContent("new"));
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    @Test
+    void shouldReturnBytes() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/image").doReturnBytes(new byte[]{1, 2, 3}).withHeader("Content-Type", "image/png");
+        httpClientMock.onGet("/missing").doReturnBytes(404, new byte[]{4});
+
+        final var image = httpClientMock.send(newBuilder(URI.create("http://localhost/image")).GET().build(), BodyHandlers.ofByteArray());
+        final var missing = httpClientMock.send(newBuilder(URI.create("http://localhost/missing")).GET().build(), BodyHandlers.ofByteArray());
+
+        assertArrayEquals(new byte[]{1, 2, 3}, image.body());
+        assertThat(image.headers().firstValue("Content-Type").orElse(null), equalTo("image/png"));
+        assertThat(missing.statusCode(), equalTo(404));
+        assertArrayEquals(new byte[]{4}, missing.body());
+    }
+
+    @Test
+    void shouldStreamInfiniteBodyOnDemand() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        final AtomicInteger generated = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        httpClientMock.onGet("/events").doReturnChunks(() -> Stream.iterate(0, i -> i + 1)
+                .peek(i -> generated.incrementAndGet())
+                .map(i -> "{\"event\": " + i + "}\n")
+                .onClose(() -> closed.set(true)));
+
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost/events")).GET().build(), BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            assertThat(lines.limit(3).collect(Collectors.toList()),
+                    equalTo(List.of("{\"event\": 0}", "{\"event\": 1}", "{\"event\": 2}")));
+        }
+
+        assertTrue(closed.get());
+        assertTrue(generated.get() < 2000);
+    }
+
+    @Test
+    void shouldDeliverChunksOnlyWhenRequested() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/data").doReturn("0123456789abcdefghijklmno").withChunkSize(10);
+
+        final List<String> received = new ArrayList<>();
+        final List<Flow.Subscription> subscriptions = new ArrayList<>();
+        final CompletableFuture<Void> completed = new CompletableFuture<>();
+        httpClientMock.sendAsync(newBuilder(URI.create("http://localhost/data")).GET().build(),
+                responseInfo -> new HttpResponse.BodySubscriber<Void>() {
+                    @Override
+                    public CompletionStage<Void> getBody() {
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscriptions.add(subscription);
+                    }
+
+                    @Override
+                    public void onNext(List<ByteBuffer> item) {
+                        item.forEach(buffer -> received.add(StandardCharsets.UTF_8.decode(buffer).toString()));
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        completed.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        completed.complete(null);
+                    }
+                }).get();
+
+        assertThat(received, equalTo(List.of()));
+        subscriptions.get(0).request(1);
+        assertThat(received, equalTo(List.of("0123456789")));
+        subscriptions.get(0).request(2);
+        assertThat(received, equalTo(List.of("0123456789", "abcdefghij", "klmno")));
+        completed.get();
+    }
+
+    @Test
+    void shouldRenderTemplateWithPathVariablesAndQueryParameters() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().withPathTemplate("/users/{id}/orders")
+                .doReturnTemplate("{\"user\": \"${id}\", \"page\": \"${query.page}\", \"unknown\": \"${missing}\"}");
+
+        final var response = httpClientMock.send(newBuilder(URI.create("http://localhost/users/42/orders?page=3")).GET().build(), ofString());
+
+        assertThat(response.body(), equalTo("{\"user\": \"42\", \"page\": \"3\", \"unknown\": \"\"}"));
+    }
+
+    @Test
+    void shouldAnswerWithBodyComputedFromRequest() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().withPath(containsString("/items/"))
+                .doAnswer(request -> "echo " + request.uri().getPath() + " " + request.headers().firstValue("X-Id").orElse(""))
+                .withHeader("Content-Type", "text/plain");
+        httpClientMock.onPost("/items").doAnswer(201, request -> request.method());
+
+        final var first = httpClientMock.send(newBuilder(URI.create("http://localhost/items/1")).header("X-Id", "a").GET().build(), ofString());
+        final var second = httpClientMock.send(newBuilder(URI.create("http://localhost/items/2")).header("X-Id", "b").GET().build(), ofString());
+        final var created = httpClientMock.send(newBuilder(URI.create("http://localhost/items")).POST(noBody()).build(), ofString());
+
+        assertThat(first.body(), equalTo("echo /items/1 a"));
+        assertThat(second.body(), equalTo("echo /items/2 b"));
+        assertThat(second.headers().firstValue("Content-Type").orElse(null), equalTo("text/plain"));
+        assertThat(created.statusCode(), equalTo(201));
+        assertThat(created.body(), equalTo("POST"));
+    }
+
+    @Test
+    void shouldGiveCustomActionAccessToRequest() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet().withPathTemplate("/users/{id}").doAction(response -> {
+            response.setStatusCode(response.request().map(r -> r.queryParameters().containsKey("admin")).orElse(false) ? 403 : 200);
+            response.setBodyBytes(ByteBuffer.wrap(response.pathVariables().get("id").getBytes(StandardCharsets.UTF_8)));
+        });
+
+        final var user = httpClientMock.send(newBuilder(URI.create("http://localhost/users/7")).GET().build(), ofString());
+        final var admin = httpClientMock.send(newBuilder(URI.create("http://localhost/users/8?admin")).GET().build(), ofString());
+
+        assertThat(user.statusCode(), equalTo(200));
+        assertThat(user.body(), equalTo("7"));
+        assertThat(admin.statusCode(), equalTo(403));
+        assertThat(admin.body(), equalTo("8"));
+    }
+
     private Action customAction() {
         return r -> r.setBodyBytes(ByteBuffer.wrap("I am a custom action".getBytes()));
     }
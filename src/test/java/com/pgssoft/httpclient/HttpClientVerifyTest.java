@@ -5,6 +5,12 @@ import org.junit.jupiter.api.Test;
 
 import java.net.URI;
 import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.net.http.HttpRequest.BodyPublishers.noBody;
 import static java.net.http.HttpRequest.newBuilder;
@@ -247,4 +253,87 @@ class HttpClientVerifyTest {
         httpClientMock.verify().get().with(request -> request.uri().getFragment().length()==3).called();
     }
 
+    @Test
+    void should_count_requests_sent_concurrently() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/login").doReturn("OK");
+        httpClientMock.send(TestRequests.get("http://localhost/login"), discarding());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        final List<Callable<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            calls.add(() -> httpClientMock.send(TestRequests.get("http://localhost/login"), discarding()));
+        }
+        for (Future<Object> result : executor.invokeAll(calls)) {
+            result.get();
+        }
+        executor.shutdown();
+
+        httpClientMock.verify().get("/login").called(2001);
+    }
+
+    @Test
+    void should_verify_only_retained_requests() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.lastRequests(2));
+        httpClientMock.onGet().doReturn("OK");
+        httpClientMock.send(TestRequests.get("http://localhost/a"), discarding());
+        httpClientMock.send(TestRequests.get("http://localhost/b"), discarding());
+        httpClientMock.send(TestRequests.get("http://localhost/c"), discarding());
+
+        httpClientMock.verify().get("/c").called(greaterThanOrEqualTo(1));
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> httpClientMock.verify().get("/c").called(1));
+        Assertions.assertTrue(exception.getMessage().contains("inconclusive"));
+        Assertions.assertTrue(exception.getMessage().contains("last 2 requests"));
+
+        exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> httpClientMock.verify().get("/a").called());
+        Assertions.assertTrue(exception.getMessage().contains("evicted 1 requests"));
+    }
+
+    @Test
+    void should_not_report_eviction_for_unbounded_journal() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.unbounded());
+        httpClientMock.onGet().doReturn("OK");
+        httpClientMock.send(TestRequests.get("http://localhost/a"), discarding());
+
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> httpClientMock.verify().get("/a").called(2));
+        Assertions.assertEquals("Expected <2> calls, but found 1.", exception.getMessage());
+    }
+
+    @Test
+    void should_count_requests_matching_registered_expectation() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.journalPolicy(JournalPolicy.countersOnly());
+        httpClientMock.onGet().doReturn("OK");
+        final Expectation login = httpClientMock.verify().get("/login").withParameter("user", "john").register();
+        final Expectation anyGet = httpClientMock.verify().get().register();
+        final Expectation logout = httpClientMock.verify().get("/logout").register();
+
+        httpClientMock.send(TestRequests.get("http://localhost/login?user=john"), discarding());
+        httpClientMock.send(TestRequests.get("http://localhost/login?user=ben"), discarding());
+        httpClientMock.send(TestRequests.get("http://localhost/login?user=john"), discarding());
+
+        login.called(2);
+        anyGet.called(greaterThanOrEqualTo(3));
+        logout.notCalled();
+        Assertions.assertThrows(IllegalStateException.class, () -> login.called(1));
+    }
+
+    @Test
+    void should_count_only_requests_sent_after_expectation_was_registered() throws Exception {
+        final HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/login").doReturn("OK");
+        httpClientMock.send(TestRequests.get("http://localhost/login"), discarding());
+
+        final Expectation login = httpClientMock.verify().get("/login").register();
+        httpClientMock.send(TestRequests.get("http://localhost/login"), discarding());
+
+        login.called();
+        httpClientMock.verify().get("/login").called(2);
+    }
+
 }
@@ -0,0 +1,76 @@
+package com.pgssoft.httpclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatencyDistributionTest {
+
+    @Test
+    void fixedShouldAlwaysReturnSameDelay() {
+        final LatencyDistribution distribution = LatencyDistribution.fixed(Duration.ofMillis(5));
+        assertThat(distribution.next(), equalTo(Duration.ofMillis(5)));
+        assertThat(distribution.next(), equalTo(Duration.ofMillis(5)));
+    }
+
+    @Test
+    void uniformShouldStayWithinBounds() {
+        final LatencyDistribution distribution = LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(20));
+        for (int i = 0; i < 1000; i++) {
+            final Duration delay = distribution.next();
+            assertThat(delay, greaterThanOrEqualTo(Duration.ofMillis(10)));
+            assertThat(delay, lessThanOrEqualTo(Duration.ofMillis(20)));
+        }
+    }
+
+    @Test
+    void percentilesShouldStayWithinDefinedRange() {
+        final LatencyDistribution distribution = LatencyDistribution.percentiles(Map.of(
+                50.0, Duration.ofMillis(10),
+                99.0, Duration.ofMillis(100),
+                100.0, Duration.ofMillis(200)));
+        for (int i = 0; i < 1000; i++) {
+            final Duration delay = distribution.next();
+            assertThat(delay, greaterThanOrEqualTo(Duration.ZERO));
+            assertThat(delay, lessThanOrEqualTo(Duration.ofMillis(200)));
+        }
+    }
+
+    @Test
+    void logNormalShouldNotBeNegative() {
+        final LatencyDistribution distribution = LatencyDistribution.logNormal(Duration.ofMillis(10), 0.5);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(distribution.next(), greaterThanOrEqualTo(Duration.ZERO));
+        }
+    }
+
+    @Test
+    void shouldDrawSameDelaysFromGeneratorsWithSameSeed() {
+        final List<LatencyDistribution> distributions = List.of(
+                LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(20)),
+                LatencyDistribution.logNormal(Duration.ofMillis(10), 0.5),
+                LatencyDistribution.percentiles(Map.of(50.0, Duration.ofMillis(10), 100.0, Duration.ofMillis(200))));
+        for (LatencyDistribution distribution : distributions) {
+            final List<Duration> delays = draw(distribution, new SplittableRandom(42));
+            assertThat(draw(distribution, new SplittableRandom(42)), equalTo(delays));
+        }
+    }
+
+    private static List<Duration> draw(LatencyDistribution distribution, SplittableRandom random) {
+        return Stream.generate(() -> distribution.next(random)).limit(100).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.uniform(Duration.ofMillis(20), Duration.ofMillis(10)));
+    }
+}
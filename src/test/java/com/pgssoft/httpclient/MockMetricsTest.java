@@ -0,0 +1,57 @@
+package com.pgssoft.httpclient;
+
+import org.junit.jupiter.api.Test;
+
+import static com.pgssoft.httpclient.TestRequests.get;
+import static java.net.http.HttpResponse.BodyHandlers.discarding;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MockMetricsTest {
+
+    @Test
+    void should_count_rule_hits_misses_and_unmatched_requests() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.metricsOn();
+        httpClientMock.onGet("/login").doReturn("login");
+        httpClientMock.onGet("/login").withParameter("user", "john").doReturn("john");
+        httpClientMock.onGet("/logout").doReturn("logout");
+
+        httpClientMock.send(get("http://localhost/login?user=john"), discarding());
+        httpClientMock.send(get("http://localhost/login"), discarding());
+        httpClientMock.send(get("http://localhost/login"), discarding());
+        assertThrows(IllegalStateException.class, () -> httpClientMock.send(get("http://localhost/other"), discarding()));
+
+        MockMetrics metrics = httpClientMock.metrics();
+        assertThat(metrics.requests(), equalTo(4L));
+        assertThat(metrics.unmatchedRequests(), equalTo(1L));
+        assertThat(metrics.matchingTime().count(), equalTo(4L));
+        assertThat(metrics.rules().get(0).hits(), equalTo(2L));
+        assertThat(metrics.rules().get(1).hits(), equalTo(1L));
+        assertThat(metrics.rules().get(1).misses(), equalTo(2L));
+        assertThat(metrics.rules().get(1).productionTime().count(), equalTo(1L));
+        assertThat(metrics.deadRules().size(), equalTo(1));
+        assertThat(metrics.deadRules().get(0).description(), equalTo("GET localhost /logout"));
+        assertThat(metrics.toString(), containsString("Rule 2 (GET localhost /login): hits: 1, misses: 2"));
+    }
+
+    @Test
+    void should_not_record_metrics_when_off() throws Exception {
+        HttpClientMock httpClientMock = new HttpClientMock("http://localhost");
+        httpClientMock.onGet("/login").doReturn("login");
+        httpClientMock.send(get("http://localhost/login"), discarding());
+
+        httpClientMock.metricsOn();
+        httpClientMock.send(get("http://localhost/login"), discarding());
+        httpClientMock.metricsOff();
+        httpClientMock.send(get("http://localhost/login"), discarding());
+
+        MockMetrics metrics = httpClientMock.metrics();
+        assertThat(metrics.requests(), equalTo(1L));
+        assertThat(metrics.rules().get(0).hits(), equalTo(1L));
+        assertThat(metrics.matchingTime().percentile(100).toNanos(), greaterThan(0L));
+    }
+}
@@ -0,0 +1,130 @@
+package com.pgssoft.httpclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.pgssoft.httpclient.HttpResponseMatchers.hasContent;
+import static com.pgssoft.httpclient.HttpResponseMatchers.hasStatus;
+import static com.pgssoft.httpclient.TestRequests.get;
+import static java.net.http.HttpResponse.BodyHandlers.ofString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordReplayTest {
+
+    @Test
+    void should_replay_recorded_responses() throws Exception {
+        Path capture = tempFile();
+        HttpClientMock server = new HttpClientMock("http://localhost");
+        server.onGet("/users").doReturn("[]").withHeader("Content-Type", "application/json");
+        server.onGet("/counter").doReturn("1").doReturn("2");
+        server.onPost("/users").withBody(equalTo("john")).doReturn(201, "created john");
+        server.onPost("/users").withBody(equalTo("ben")).doReturn(201, "created ben");
+
+        try (RecordingHttpClient recorder = new RecordingHttpClient(server, capture)) {
+            assertThat(recorder.send(get("http://localhost/users"), ofString()), hasContent("[]"));
+            recorder.send(get("http://localhost/counter"), ofString());
+            recorder.send(get("http://localhost/counter"), ofString());
+            recorder.send(post("http://localhost/users", "john"), ofString());
+            recorder.sendAsync(post("http://localhost/users", "ben"), ofString()).get();
+        }
+
+        HttpClientMock replay = new HttpClientMock();
+        replay.replay(capture);
+
+        var users = replay.send(get("http://localhost/users"), ofString());
+        assertThat(users, hasContent("[]"));
+        assertThat(users.headers().firstValue("Content-Type").orElse(null), equalTo("application/json"));
+        assertThat(replay.send(get("http://localhost/counter"), ofString()), hasContent("1"));
+        assertThat(replay.send(get("http://localhost/counter"), ofString()), hasContent("2"));
+        assertThat(replay.send(get("http://localhost/counter"), ofString()), hasContent("2"));
+        assertThat(replay.send(post("http://localhost/users", "ben"), ofString()), hasStatus(201));
+        assertThat(replay.send(post("http://localhost/users", "john"), ofString()), hasContent("created john"));
+        assertThrows(IllegalStateException.class, () -> replay.send(post("http://localhost/users", "anna"), ofString()));
+    }
+
+    @Test
+    void should_store_equal_bodies_once_and_append_to_existing_capture() throws Exception {
+        Path capture = tempFile();
+        String body = "x".repeat(10_000);
+        HttpClientMock server = new HttpClientMock("http://localhost");
+        server.onGet().doReturn(body);
+
+        try (RecordingHttpClient recorder = new RecordingHttpClient(server, capture)) {
+            for (int i = 0; i < 10; i++) {
+                recorder.send(get("http://localhost/" + i), ofString());
+            }
+        }
+        assertThat(Files.size(capture), lessThan(12_000L));
+
+        Files.write(capture, new byte[]{2, 0, 3}, StandardOpenOption.APPEND);
+        try (RecordingHttpClient recorder = new RecordingHttpClient(server, capture)) {
+            recorder.send(get("http://localhost/last"), ofString());
+        }
+
+        HttpClientMock replay = new HttpClientMock();
+        replay.replay(capture);
+        assertThat(replay.send(get("http://localhost/3"), ofString()), hasContent(body));
+        assertThat(replay.send(get("http://localhost/last"), ofString()), hasContent(body));
+    }
+
+    @Test
+    void should_record_body_of_single_use_publisher() throws Exception {
+        Path capture = tempFile();
+        HttpClientMock server = new HttpClientMock("http://localhost");
+        server.onPost("/users").withBody(equalTo("john")).doReturn(201, "created john");
+        server.onPost("/users").withBody(equalTo("ben")).doReturn(201, "created ben");
+
+        InputStream body = new ByteArrayInputStream("john".getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost/users"))
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body))
+                .build();
+        try (RecordingHttpClient recorder = new RecordingHttpClient(server, capture)) {
+            assertThat(recorder.send(request, ofString()), hasContent("created john"));
+            recorder.send(post("http://localhost/users", "ben"), ofString());
+        }
+
+        HttpClientMock replay = new HttpClientMock();
+        replay.replay(capture);
+        assertThat(replay.send(post("http://localhost/users", "john"), ofString()), hasContent("created john"));
+    }
+
+    @Test
+    void should_record_headers_longer_than_64_kilobytes() throws Exception {
+        Path capture = tempFile();
+        String token = "t".repeat(70_000);
+        HttpClientMock server = new HttpClientMock("http://localhost");
+        server.onGet("/token").doReturn("ok").withHeader("Token", token);
+
+        try (RecordingHttpClient recorder = new RecordingHttpClient(server, capture)) {
+            recorder.send(get("http://localhost/token"), ofString());
+        }
+
+        HttpClientMock replay = new HttpClientMock();
+        replay.replay(capture);
+        var response = replay.send(get("http://localhost/token"), ofString());
+        assertThat(response, hasContent("ok"));
+        assertThat(response.headers().firstValue("Token").orElse(null), equalTo(token));
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static Path tempFile() throws Exception {
+        Path file = Files.createTempFile("capture", ".bin");
+        Files.delete(file);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,191 @@
+package com.pgssoft.httpclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static com.pgssoft.httpclient.HttpResponseMatchers.hasContent;
+import static com.pgssoft.httpclient.HttpResponseMatchers.hasStatus;
+import static com.pgssoft.httpclient.TestRequests.get;
+import static java.net.http.HttpResponse.BodyHandlers.ofString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuleFilesTest {
+
+    @Test
+    void should_return_responses_of_rules_from_directory() throws Exception {
+        Path directory = tempDirectory();
+        Files.createDirectory(directory.resolve("bodies"));
+        Files.writeString(directory.resolve("bodies/users.json"), "{\"id\": 1}");
+        Files.writeString(directory.resolve("1-users.json"), "[" +
+                "{\"method\": \"get\", \"url\": \"/users\", \"response\": {\"bodyFile\": \"bodies/users.json\"," +
+                " \"headers\": {\"Content-Type\": \"application/json\"}}}," +
+                "{\"method\": \"GET\", \"url\": \"/users\", \"parameters\": {\"page\": \"2\"}, \"response\": {\"body\": \"page 2\"}}," +
+                "{\"method\": \"GET\", \"url\": \"/users\", \"headers\": {\"Accept\": \"text/plain\"}, \"response\": {\"body\": \"plain\"}}" +
+                "]");
+        Files.writeString(directory.resolve("2-login.json"), "[" +
+                "{\"method\": \"POST\", \"url\": \"/login\", \"body\": {\"contains\": \"john\"}," +
+                " \"sequencing\": \"CYCLIC\", \"responses\": [{\"status\": 200}, {\"status\": 429, \"delayMillis\": 1}]}," +
+                "{\"method\": \"POST\", \"url\": \"/login\", \"body\": {\"matches\": \"ben.*\"}, \"response\": {\"status\": 403}}" +
+                "]");
+        Files.writeString(directory.resolve("notes.txt"), "not a rule file");
+
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+        mock.loadRuleFiles(directory);
+        mock.onGet("/users").withParameter("page", "3").doReturn("defined");
+
+        var users = mock.send(get("http://localhost/users"), ofString());
+        assertThat(users, hasContent("{\"id\": 1}"));
+        assertThat(users.headers().firstValue("Content-Type").orElse(null), equalTo("application/json"));
+        assertThat(mock.send(get("http://localhost/users?page=2"), ofString()), hasContent("page 2"));
+        assertThat(mock.send(get("http://localhost/users?page=3"), ofString()), hasContent("defined"));
+        assertThat(mock.send(HttpRequest.newBuilder(URI.create("http://localhost/users")).header("Accept", "text/plain").build(), ofString()),
+                hasContent("plain"));
+        assertThat(mock.send(post("http://localhost/login", "user=john"), ofString()), hasStatus(200));
+        assertThat(mock.send(post("http://localhost/login", "user=john"), ofString()), hasStatus(429));
+        assertThat(mock.send(post("http://localhost/login", "user=john"), ofString()), hasStatus(200));
+        assertThat(mock.send(post("http://localhost/login", "benjamin"), ofString()), hasStatus(403));
+        assertThrows(IllegalStateException.class, () -> mock.send(post("http://localhost/login", "anna"), ofString()));
+        assertThrows(IllegalStateException.class, () -> mock.send(get("http://localhost/other"), ofString()));
+    }
+
+    @Test
+    void should_read_body_file_when_rules_are_loaded() throws Exception {
+        Path directory = tempDirectory();
+        Path body = directory.resolve("body.txt");
+        Files.writeString(body, "old");
+        Path rules = directory.resolve("rules.json");
+        Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/body\", \"response\": {\"bodyFile\": \"body.txt\"}}");
+
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+        mock.loadRuleFiles(rules);
+        Files.writeString(body, "");
+
+        assertThat(mock.send(get("http://localhost/body"), ofString()), hasContent("old"));
+    }
+
+    @Test
+    void should_reject_invalid_rule_file() throws Exception {
+        Path directory = tempDirectory();
+        Path rules = directory.resolve("rules.json");
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+
+        Files.writeString(rules, "[{\"method\": \"GET\"}, {\"method\": \"GET\", \"uri\": \"/typo\"}]");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> mock.loadRuleFiles(rules));
+        assertThat(exception.getMessage(), containsString("rules.json: rule 2: unknown field 'uri'"));
+
+        Files.writeString(rules, "{\"method\": \"GET\", \"response\": {\"bodyFile\": \"missing.txt\"}}");
+        assertThrows(IllegalArgumentException.class, () -> mock.loadRuleFiles(rules));
+
+        Files.writeString(rules, "{\"url\": \"/users\"}");
+        assertThrows(IllegalArgumentException.class, () -> mock.loadRuleFiles(rules));
+    }
+
+    @Test
+    void should_reload_changed_rule_files() throws Exception {
+        Path directory = tempDirectory();
+        Path rules = directory.resolve("rules.json");
+        Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"body\": \"v1\"}}");
+
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+        try (RuleFileWatch watch = mock.watchRuleFiles(directory)) {
+            assertThat(mock.send(get("http://localhost/status"), ofString()), hasContent("v1"));
+
+            Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"body\": \"v2\"}}");
+            await(() -> content(mock).equals("v2"));
+
+            Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"body\": ");
+            await(() -> watch.lastFailure().isPresent());
+            assertThat(content(mock), equalTo("v2"));
+
+            Files.writeString(directory.resolve("more.json"), "{\"method\": \"DELETE\", \"url\": \"/status\"}");
+            Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"body\": \"v3\"}}");
+            await(() -> content(mock).equals("v3"));
+            assertThat(watch.lastFailure().isPresent(), equalTo(false));
+            assertThat(mock.send(HttpRequest.newBuilder(URI.create("http://localhost/status")).DELETE().build(), ofString()),
+                    hasStatus(200));
+        }
+    }
+
+    @Test
+    void should_reload_rules_when_body_file_changes() throws Exception {
+        Path directory = tempDirectory();
+        Files.createDirectory(directory.resolve("bodies"));
+        Path body = directory.resolve("bodies/status.txt");
+        Files.writeString(body, "v1");
+        Files.writeString(directory.resolve("rules.json"),
+                "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"bodyFile\": \"bodies/status.txt\"}}");
+
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+        try (RuleFileWatch watch = mock.watchRuleFiles(directory)) {
+            assertThat(content(mock), equalTo("v1"));
+
+            Files.writeString(directory.resolve("bodies/new.txt"), "v2");
+            Files.move(directory.resolve("bodies/new.txt"), body, StandardCopyOption.REPLACE_EXISTING);
+            await(() -> content(mock).equals("v2"));
+            assertTrue(watch.reloads() > 0);
+        }
+    }
+
+    @Test
+    void should_reload_single_rule_file_only_when_it_changes() throws Exception {
+        Path directory = tempDirectory();
+        Path rules = directory.resolve("rules.json");
+        Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"body\": \"v1\"}}");
+
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+        try (RuleFileWatch watch = mock.watchRuleFiles(rules)) {
+            Files.createDirectory(directory.resolve("other"));
+            Files.writeString(directory.resolve("other.txt"), "unrelated");
+            Thread.sleep(300);
+            assertThat(watch.reloads(), equalTo(0L));
+
+            Files.writeString(rules, "{\"method\": \"GET\", \"url\": \"/status\", \"response\": {\"body\": \"v2\"}}");
+            await(() -> content(mock).equals("v2"));
+        }
+    }
+
+    private static String content(HttpClientMock mock) {
+        try {
+            return mock.send(get("http://localhost/status"), ofString()).body();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static Path tempDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("rules");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            } catch (IOException e) {
+                // best effort cleanup
+            }
+        }));
+        return directory;
+    }
+}
@@ -0,0 +1,120 @@
+package com.pgssoft.httpclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static com.pgssoft.httpclient.HttpResponseMatchers.hasContent;
+import static com.pgssoft.httpclient.HttpResponseMatchers.hasStatus;
+import static com.pgssoft.httpclient.TestRequests.get;
+import static com.pgssoft.httpclient.TestRequests.post;
+import static java.net.http.HttpRequest.BodyPublishers.noBody;
+import static java.net.http.HttpResponse.BodyHandlers.ofString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RuleSnapshotTest {
+
+    @Test
+    void should_return_responses_of_exported_rules() throws Exception {
+        Path snapshot = tempFile();
+        HttpClientMock source = new HttpClientMock("http://localhost");
+        source.onGet("/users").doReturnJSON("[]");
+        source.onGet("/users?page=2").doReturn("page 2");
+        source.onPost("/users").doReturn(201, "created").withDelay(Duration.ofMillis(1));
+        source.onGet("/counter").doReturn("1").doReturn("2").withSequencing(ResponseSequencing.CYCLIC);
+        source.onGet("/status").doReturn("old");
+        source.onGet("/status").doReturnStatus(503);
+        source.exportRules(snapshot);
+
+        HttpClientMock loaded = new HttpClientMock();
+        loaded.loadRules(snapshot);
+
+        var users = loaded.send(get("http://localhost/users"), ofString());
+        assertThat(users, hasContent("[]"));
+        assertThat(users.headers().firstValue("Content-type").orElse(null), equalTo("application/json; charset=UTF-8"));
+        assertThat(loaded.send(get("http://localhost/users?page=2"), ofString()), hasContent("page 2"));
+        assertThat(loaded.send(post("http://localhost/users"), ofString()), hasStatus(201));
+        assertThat(loaded.send(get("http://localhost/counter"), ofString()), hasContent("1"));
+        assertThat(loaded.send(get("http://localhost/counter"), ofString()), hasContent("2"));
+        assertThat(loaded.send(get("http://localhost/counter"), ofString()), hasContent("1"));
+        assertThat(loaded.send(get("http://localhost/status"), ofString()), hasStatus(503));
+        assertThrows(IllegalStateException.class, () -> loaded.send(get("http://localhost/other"), ofString()));
+        assertThrows(IllegalStateException.class, () -> loaded.send(get("http://otherhost/users"), ofString()));
+    }
+
+    @Test
+    void should_combine_loaded_rules_with_defined_ones() throws Exception {
+        Path snapshot = tempFile();
+        HttpClientMock source = new HttpClientMock("http://localhost");
+        source.onGet("/login").doReturn("snapshot");
+        source.exportRules(snapshot);
+
+        HttpClientMock mock = new HttpClientMock("http://localhost");
+        mock.onGet("/logout").doReturn("defined");
+        mock.loadRules(snapshot);
+        mock.onGet("/login").withParameter("user", "john").doReturn("john");
+
+        assertThat(mock.send(get("http://localhost/login"), ofString()), hasContent("snapshot"));
+        assertThat(mock.send(get("http://localhost/login?user=john"), ofString()), hasContent("john"));
+        assertThat(mock.send(get("http://localhost/logout"), ofString()), hasContent("defined"));
+    }
+
+    @Test
+    void should_find_rules_of_large_snapshot() throws Exception {
+        Path snapshot = tempFile();
+        HttpClientMock source = new HttpClientMock("http://localhost");
+        for (int i = 0; i < 2000; i++) {
+            source.onGet("/items/" + i).doReturn("item " + i);
+            source.onPut("/items/" + i).doReturnStatus(204);
+        }
+        source.exportRules(snapshot);
+
+        HttpClientMock loaded = new HttpClientMock();
+        loaded.loadRules(snapshot);
+
+        for (int i = 0; i < 2000; i += 7) {
+            assertThat(loaded.send(get("http://localhost/items/" + i), ofString()), hasContent("item " + i));
+        }
+        assertThat(loaded.send(HttpRequest.newBuilder(URI.create("http://localhost/items/5")).PUT(noBody()).build(), ofString()),
+                hasStatus(204));
+        assertThrows(IllegalStateException.class, () -> loaded.send(get("http://localhost/items/2000"), ofString()));
+    }
+
+    @Test
+    void should_not_export_rules_with_dynamic_conditions_or_responses() throws Exception {
+        Path snapshot = tempFile();
+        HttpClientMock withTemplate = new HttpClientMock("http://localhost");
+        withTemplate.onGet("/users/{id}").doReturn("user");
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> withTemplate.exportRules(snapshot));
+        assertThat(exception.getMessage(), containsString("Rule 1 (GET localhost"));
+
+        HttpClientMock withAnswer = new HttpClientMock("http://localhost");
+        withAnswer.onGet("/users").doAnswer(request -> "user");
+        assertThrows(IllegalStateException.class, () -> withAnswer.exportRules(snapshot));
+
+        HttpClientMock withHeaderCondition = new HttpClientMock("http://localhost");
+        withHeaderCondition.onGet("/users").withHeader("Accept", "text/plain").doReturn("user");
+        assertThrows(IllegalStateException.class, () -> withHeaderCondition.exportRules(snapshot));
+    }
+
+    @Test
+    void should_reject_file_which_is_not_snapshot() throws Exception {
+        Path file = tempFile();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        assertThrows(IOException.class, () -> new HttpClientMock().loadRules(file));
+    }
+
+    private static Path tempFile() throws Exception {
+        Path file = Files.createTempFile("rules", ".snapshot");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -3,6 +3,8 @@ package com.pgssoft.httpclient;
 import com.pgssoft.httpclient.internal.UrlConditions;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class UrlConditionsTest {
@@ -42,6 +44,15 @@ class UrlConditionsTest {
         assertTrue(urlConditions.getParameterConditions().matches("b=2&a=1"));
     }
 
+    @Test
+    void parsePathTemplate() {
+        UrlConditions urlConditions = UrlConditions.parse("http://localhost/users/{id}/orders?a={b}");
+        assertTrue(urlConditions.getPathCondition().matches("/users/1/orders"));
+        assertFalse(urlConditions.getPathCondition().matches("/users/1/2/orders"));
+        assertNotNull(urlConditions.getPathTemplate());
+        assertTrue(urlConditions.getParameterConditions().matches("a={b}"));
+    }
+
     @Test
     void parseHostReference() {
         UrlConditions urlConditions = UrlConditions.parse("http://localhost#abc");
@@ -0,0 +1,51 @@
+package com.pgssoft.httpclient.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class BodySubscriptionTest {
+
+    @Test
+    void shouldSignalInvalidRequestOnceAndTerminate() {
+        final List<String> signals = new ArrayList<>();
+        final AtomicInteger terminations = new AtomicInteger();
+        final Flow.Subscriber<List<ByteBuffer>> subscriber = new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+                subscription.request(0);
+                subscription.request(-1);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+                signals.add("next");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(throwable.getClass().getSimpleName());
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+        };
+
+        new BodySubscription(subscriber, BodySubscription.slices(ByteBuffer.wrap(new byte[10]), 1), 0, null,
+                terminations::incrementAndGet).start();
+
+        assertThat(signals, contains("next", "IllegalArgumentException"));
+        assertThat(terminations.get(), equalTo(1));
+    }
+}
@@ -0,0 +1,32 @@
+package com.pgssoft.httpclient.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void shouldKeepValuesWithBoundedRelativeError() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+            long highest = Histogram.highestValueOf(bucket);
+            assertTrue(highest >= value, "value " + value);
+            assertTrue(highest - value <= value / 8, "value " + value);
+            assertEquals(bucket, Histogram.bucketOf(highest));
+        }
+    }
+
+    @Test
+    void shouldCountRecordedValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(10);
+        histogram.record(10);
+        histogram.record(-5);
+
+        assertEquals(2, histogram.counts()[Histogram.bucketOf(10)]);
+        assertEquals(1, histogram.counts()[0]);
+        assertEquals(20, histogram.totalNanos());
+    }
+}
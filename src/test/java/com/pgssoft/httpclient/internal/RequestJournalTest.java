@@ -0,0 +1,99 @@
+package com.pgssoft.httpclient.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestJournalTest {
+
+    @Test
+    void shouldKeepRequestsInOrderAcrossSegments() {
+        RequestJournal journal = new SegmentedJournal();
+        RequestContext[] requests = new RequestContext[1000];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new RequestContext(HttpRequest.newBuilder(URI.create("http://localhost/" + i)).build());
+            journal.add(requests[i]);
+        }
+
+        List<RequestContext> snapshot = journal.snapshot();
+        assertEquals(requests.length, snapshot.size());
+        for (int i = 0; i < requests.length; i++) {
+            assertSame(requests[i], snapshot.get(i));
+        }
+    }
+
+    @Test
+    void shouldReturnEmptySnapshotForEmptyJournal() {
+        assertEquals(0, new SegmentedJournal().snapshot().size());
+    }
+
+    @Test
+    void shouldRetainLastRequestsInRing() {
+        RequestJournal journal = RequestJournal.lastRequests(3);
+        RequestContext[] requests = requests(5);
+        for (RequestContext request : requests) {
+            journal.add(request);
+        }
+
+        assertEquals(List.of(requests[2], requests[3], requests[4]), journal.snapshot());
+        assertEquals(5, journal.total());
+        assertEquals(2, journal.evicted());
+    }
+
+    @Test
+    void shouldExpireRequestsOutsideTimeWindow() {
+        AtomicLong clock = new AtomicLong();
+        RequestJournal journal = new TimeWindowJournal(Duration.ofNanos(10), clock::get);
+        RequestContext[] requests = requests(3);
+        journal.add(requests[0]);
+        clock.set(5);
+        journal.add(requests[1]);
+        clock.set(12);
+        journal.add(requests[2]);
+
+        assertEquals(List.of(requests[1], requests[2]), journal.snapshot());
+        clock.set(20);
+        assertEquals(List.of(requests[2]), journal.snapshot());
+        assertEquals(3, journal.total());
+        assertEquals(2, journal.evicted());
+    }
+
+    @Test
+    void shouldSampleEvenlySpreadRequests() {
+        RequestJournal journal = RequestJournal.sampling(0.25);
+        RequestContext[] requests = requests(8);
+        for (RequestContext request : requests) {
+            journal.add(request);
+        }
+
+        assertEquals(List.of(requests[3], requests[7]), journal.snapshot());
+        assertEquals(6, journal.evicted());
+    }
+
+    @Test
+    void shouldOnlyCountRequests() {
+        RequestJournal journal = RequestJournal.countersOnly();
+        for (RequestContext request : requests(4)) {
+            journal.add(request);
+        }
+
+        assertEquals(0, journal.snapshot().size());
+        assertEquals(4, journal.total());
+        assertEquals(4, journal.evicted());
+    }
+
+    private static RequestContext[] requests(int count) {
+        RequestContext[] requests = new RequestContext[count];
+        for (int i = 0; i < count; i++) {
+            requests[i] = new RequestContext(HttpRequest.newBuilder(URI.create("http://localhost/" + i)).build());
+        }
+        return requests;
+    }
+}
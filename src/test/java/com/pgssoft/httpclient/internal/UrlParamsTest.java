@@ -2,6 +2,8 @@ package com.pgssoft.httpclient.internal;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,4 +28,29 @@ class UrlParamsTest {
         assertEquals(0, UrlParams.parse(null).getParams().size());
     }
 
+    @Test
+    void shouldDecodePercentEncodedNamesAndValues() {
+        UrlParams urlParams = UrlParams.parse("na%6De=J%C3%B3zef&q=a%26b&plus=a+b");
+        assertTrue(urlParams.contains("name"));
+        assertEquals(List.of("Józef"), urlParams.values("name"));
+        assertEquals(List.of("a&b"), urlParams.values("q"));
+        assertEquals(List.of("a+b"), urlParams.values("plus"));
+    }
+
+    @Test
+    void shouldKeepInvalidEscapeSequences() {
+        assertEquals(List.of("100%", "%zz"), UrlParams.parse("a=100%&a=%zz").values("a"));
+    }
+
+    @Test
+    void shouldGroupRepeatedParametersAndSkipEmptyPairs() {
+        UrlParams urlParams = UrlParams.parse("a=1&&b&a=2&c=");
+        assertEquals(4, urlParams.size());
+        assertEquals(Arrays.asList("1", "2"), urlParams.values("a"));
+        assertEquals(Collections.singletonList(null), urlParams.values("b"));
+        assertEquals(Collections.singletonList(null), urlParams.values("c"));
+        assertEquals(3, urlParams.getParams().size());
+        assertEquals(0, urlParams.values("d").size());
+    }
+
 }
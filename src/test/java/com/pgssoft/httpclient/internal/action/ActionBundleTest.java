@@ -0,0 +1,58 @@
+package com.pgssoft.httpclient.internal.action;
+
+import com.pgssoft.httpclient.LatencyDistribution;
+import com.pgssoft.httpclient.MockedServerResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ActionBundleTest {
+
+    @Test
+    void shouldReuseTemplateOfStaticBundle() throws Exception {
+        final ActionBundle bundle = new ActionBundle();
+        bundle.add(new SetStatusAction(201));
+        bundle.add(new SetHeaderAction("Content-Type", "text/plain"));
+        bundle.add(new SetBodyStringAction("created", StandardCharsets.UTF_8));
+        bundle.add(new SetDelayAction(Duration.ofMillis(5)));
+        bundle.compile();
+
+        final MockedServerResponse first = bundle.produceResponse();
+        final MockedServerResponse second = bundle.produceResponse();
+
+        assertThat(second, sameInstance(first));
+        assertThat(first.statusCode(), equalTo(201));
+        assertThat(first.httpHeaders().firstValue("Content-Type").orElse(null), equalTo("text/plain"));
+        assertThat(StandardCharsets.UTF_8.decode(first.getBodyBytes()).toString(), equalTo("created"));
+        assertThat(StandardCharsets.UTF_8.decode(second.getBodyBytes()).toString(), equalTo("created"));
+        assertThat(first.delay(), equalTo(Duration.ofMillis(5)));
+        assertThrows(UnsupportedOperationException.class, () -> first.headers().put("foo", null));
+    }
+
+    @Test
+    void shouldExecuteDynamicBundleForEveryResponse() throws Exception {
+        final ActionBundle bundle = new ActionBundle();
+        bundle.add(new SetStatusAction(200));
+        bundle.add(new SetDelayAction(LatencyDistribution.uniform(Duration.ZERO, Duration.ofMillis(1))));
+        bundle.compile();
+
+        assertThat(bundle.produceResponse(), not(sameInstance(bundle.produceResponse())));
+    }
+
+    @Test
+    void shouldDropTemplateWhenActionIsAddedAfterCompilation() throws Exception {
+        final ActionBundle bundle = new ActionBundle();
+        bundle.add(new SetStatusAction(200));
+        bundle.compile();
+        bundle.add(new SetStatusAction(404));
+
+        assertThat(bundle.produceResponse().statusCode(), equalTo(404));
+    }
+}
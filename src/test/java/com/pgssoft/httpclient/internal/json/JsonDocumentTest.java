@@ -0,0 +1,88 @@
+package com.pgssoft.httpclient.internal.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonDocumentTest {
+
+    private static final String ORDER = "{\"id\": 12, \"total\": 99.5, \"paid\": true, \"note\": null, " +
+            "\"customer\": {\"name\": \"Zo\\u00eb \\\"Z\\\"\", \"city\": \"Łódź\"}, " +
+            "\"items\": [{\"sku\": \"A-1\"}, {\"sku\": \"B-2\", \"tags\": [\"x\", \"y\"]}], " +
+            "\"big\": 12345678901234567890, \"weird key\": 1}";
+
+    @Test
+    void shouldReadValuesOfAllTypes() {
+        final JsonDocument document = document(ORDER);
+
+        assertThat(document.value(JsonPath.parse("$.id")), equalTo(12));
+        assertThat(document.value(JsonPath.parse("$.total")), equalTo(99.5));
+        assertThat(document.value(JsonPath.parse("$.paid")), equalTo(true));
+        assertThat(document.value(JsonPath.parse("$.note")), nullValue());
+        assertThat(document.value(JsonPath.parse("$.customer.name")), equalTo("Zoë \"Z\""));
+        assertThat(document.value(JsonPath.parse("customer.city")), equalTo("Łódź"));
+        assertThat(document.value(JsonPath.parse("$.items[1].sku")), equalTo("B-2"));
+        assertThat(document.value(JsonPath.parse("$.items[1].tags")), equalTo("[\"x\", \"y\"]"));
+        assertThat(document.value(JsonPath.parse("$.big")), equalTo(new BigDecimal("12345678901234567890")));
+        assertThat(document.value(JsonPath.parse("$['weird key']")), equalTo(1));
+    }
+
+    @Test
+    void shouldReturnMissingForAbsentPaths() {
+        final JsonDocument document = document(ORDER);
+
+        assertThat(document.value(JsonPath.parse("$.customer.email")), sameInstance(JsonDocument.MISSING));
+        assertThat(document.value(JsonPath.parse("$.items[5]")), sameInstance(JsonDocument.MISSING));
+        assertThat(document.value(JsonPath.parse("$.id.value")), sameInstance(JsonDocument.MISSING));
+    }
+
+    @Test
+    void shouldReadObjectAndNestedPathInSingleScan() {
+        final JsonDocument document = new JsonDocument(bytes(ORDER),
+                Set.of(JsonPath.parse("$.customer"), JsonPath.parse("$.customer.city")));
+
+        assertThat(document.value(JsonPath.parse("$.customer.city")), equalTo("Łódź"));
+        assertThat(document.value(JsonPath.parse("$.customer")), equalTo("{\"name\": \"Zo\\u00eb \\\"Z\\\"\", \"city\": \"Łódź\"}"));
+    }
+
+    @Test
+    void shouldStopScanningWhenAllKnownPathsAreFound() {
+        final JsonDocument document = new JsonDocument(bytes("{\"a\": 1, \"b\": {\"c\": 2}, \"d\": this is not json"),
+                Set.of(JsonPath.parse("$.a"), JsonPath.parse("$.b.c")));
+
+        assertThat(document.value(JsonPath.parse("$.a")), equalTo(1));
+        assertThat(document.value(JsonPath.parse("$.b.c")), equalTo(2));
+    }
+
+    @Test
+    void shouldTreatMalformedDocumentAsMissing() {
+        final JsonDocument document = document("{\"a\": [1, 2");
+
+        assertThat(document.value(JsonPath.parse("$.b")), sameInstance(JsonDocument.MISSING));
+        assertThat(document(" ").value(JsonPath.parse("$")), sameInstance(JsonDocument.MISSING));
+    }
+
+    @Test
+    void shouldRejectInvalidPath() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.parse("$.a..b"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.parse("$.a[x]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.parse("$['a"));
+    }
+
+    private static JsonDocument document(String json) {
+        return new JsonDocument(bytes(json), Set.of());
+    }
+
+    private static ByteBuffer bytes(String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+}
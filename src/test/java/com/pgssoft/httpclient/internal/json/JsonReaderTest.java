@@ -0,0 +1,62 @@
+package com.pgssoft.httpclient.internal.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonReaderTest {
+
+    @Test
+    void shouldReadNestedArraysAndObjects() {
+        final JsonReader reader = reader("[1, [2, 3], {\"a\": [4]}, -5e1]");
+
+        reader.beginArray();
+        assertThat(reader.nextNumber(), equalTo(1));
+        reader.beginArray();
+        assertThat(reader.nextNumber(), equalTo(2));
+        assertThat(reader.nextNumber(), equalTo(3));
+        reader.endArray();
+        reader.beginObject();
+        assertThat(reader.nextName(), equalTo("a"));
+        assertThat(reader.nextValue(), equalTo("[4]"));
+        reader.endObject();
+        assertThat(reader.nextNumber(), equalTo(-50.0));
+        reader.endArray();
+        assertThat(reader.peek(), equalTo(JsonReader.Token.END_DOCUMENT));
+    }
+
+    @Test
+    void shouldSkipValues() {
+        final JsonReader reader = reader("{\"skip\": {\"x\": [\"}\", {}]}, \"keep\": \"\\n\"}");
+
+        reader.beginObject();
+        reader.nextName();
+        reader.skipValue();
+        assertThat(reader.nextName(), equalTo("keep"));
+        assertThat(reader.nextString(), equalTo("\n"));
+        reader.endObject();
+        assertTrue(!reader.hasNext());
+    }
+
+    @Test
+    void shouldRejectMalformedDocuments() {
+        assertThrows(IllegalArgumentException.class, () -> reader("[1,]").skipValue());
+        assertThrows(IllegalArgumentException.class, () -> reader("{\"a\" 1}").skipValue());
+        assertThrows(IllegalArgumentException.class, () -> reader("{\"a\": tru}").skipValue());
+        assertThrows(IllegalArgumentException.class, () -> {
+            final JsonReader reader = reader("1 2");
+            reader.skipValue();
+            reader.peek();
+        });
+    }
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.pgssoft.httpclient.internal.rule;
+
+import com.pgssoft.httpclient.internal.RandomSource;
+import com.pgssoft.httpclient.internal.RequestContext;
+import com.pgssoft.httpclient.internal.action.SetStatusAction;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.net.http.HttpRequest.newBuilder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RuleBuilderTest {
+
+    private final RequestContext request = new RequestContext(newBuilder(URI.create("http://localhost/foo")).GET().build());
+
+    @Test
+    void shouldReturnStatus200WhenNoProbableResponseIsDrawn() throws Exception {
+        final RuleBuilder builder = new RuleBuilder("GET", "http://localhost", "/foo");
+        builder.addProbableActionBundle(0.5, new SetStatusAction(500));
+        final Rule rule = builder.build();
+
+        final RandomSource random = new RandomSource(1);
+        final Set<Integer> statuses = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            statuses.add(rule.produceResponse(request, random).statusCode());
+        }
+        assertThat(statuses, equalTo(Set.of(200, 500)));
+    }
+
+    @Test
+    void shouldReportSeedWhenRuleHasNoActions() {
+        final Rule rule = new RuleBuilder("GET", "http://localhost", "/foo").build();
+        final RandomSource random = new RandomSource(7);
+        random.nextDouble();
+
+        final var exception = assertThrows(IllegalStateException.class, () -> rule.produceResponse(request, random));
+        assertThat(exception.getMessage(), containsString("has no actions"));
+        assertThat(exception.getMessage(), containsString("seed 7"));
+    }
+}